@@ -12,6 +12,17 @@ public class AppConfig {
                 .registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
     }
 
+    /**
+     * Cache puts and evictions made inside a transaction take effect after it
+     * commits. Evicting before the commit would let a concurrent read load the
+     * old rows and cache them again.
+     */
+    @Bean
+    public org.springframework.cache.CacheManager cacheManager() {
+        return new org.springframework.cache.transaction.TransactionAwareCacheManagerProxy(
+                new org.springframework.cache.concurrent.ConcurrentMapCacheManager());
+    }
+
     @Bean
     public org.springframework.boot.web.servlet.FilterRegistrationBean<jakarta.servlet.Filter> loggingFilter() {
         org.springframework.boot.web.servlet.FilterRegistrationBean<jakarta.servlet.Filter> registrationBean = new org.springframework.boot.web.servlet.FilterRegistrationBean<>();
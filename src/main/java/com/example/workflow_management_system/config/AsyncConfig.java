@@ -0,0 +1,170 @@
+package com.example.workflow_management_system.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Separate, bounded executors for the async work of the application so a
+ * slow SMTP server cannot starve notification handling (audit records have
+ * their own writer thread, see AuditLogWriter):
+ * <ul>
+ * <li>{@code notificationExecutor}: notification event handling. Never
+ * drops; when the queue is full the publishing thread runs the task itself
+ * (backpressure).</li>
+ * <li>{@code mailExecutor}: SMTP batches of the MailDispatcher. When full
+ * the batch is rejected and stays in the mail queue for a later poll. Can run
+ * on virtual threads (Java 21+) with a concurrency limit instead of a pool;
+ * the dispatcher then waits for a slot.</li>
+ * <li>{@code streamExecutor}: writes to the notification SSE connections.
+ * When full the task is rejected and the caller closes that connection.</li>
+ * <li>{@code exportExecutor}: background export jobs (ExportJobService).
+ * Few threads, as each holds a database cursor for the length of an export;
+ * when full the job is rejected and the client told to retry.</li>
+ * </ul>
+ * Every executor publishes async_executor_* metrics tagged with its name:
+ * queue depth, active threads, rejections, and queue wait and run time per
+ * task.
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Value("${app.async.notification.pool-size:4}")
+    private int notificationPoolSize;
+
+    @Value("${app.async.notification.queue-capacity:1000}")
+    private int notificationQueueCapacity;
+
+    @Value("${app.async.mail.pool-size:4}")
+    private int mailPoolSize;
+
+    @Value("${app.async.mail.queue-capacity:500}")
+    private int mailQueueCapacity;
+
+    @Value("${app.async.mail.virtual-threads:false}")
+    private boolean mailVirtualThreads;
+
+    @Value("${app.async.stream.pool-size:4}")
+    private int streamPoolSize;
+
+    @Value("${app.async.stream.queue-capacity:10000}")
+    private int streamQueueCapacity;
+
+    @Value("${app.async.export.pool-size:2}")
+    private int exportPoolSize;
+
+    @Value("${app.async.export.queue-capacity:50}")
+    private int exportQueueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor notificationExecutor(MeterRegistry meterRegistry) {
+        return boundedExecutor(meterRegistry, "notification", notificationPoolSize, notificationQueueCapacity,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Bean
+    public Executor mailExecutor(MeterRegistry meterRegistry) {
+        if (!mailVirtualThreads) {
+            return boundedExecutor(meterRegistry, "mail", mailPoolSize, mailQueueCapacity,
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mail-vt-");
+        try {
+            executor.setVirtualThreads(true);
+        } catch (UnsupportedOperationException e) {
+            throw new IllegalStateException("app.async.mail.virtual-threads requires Java 21 or newer", e);
+        }
+        // One virtual thread per mail, at most pool-size in flight; further
+        // submitters wait for a slot
+        executor.setConcurrencyLimit(mailPoolSize);
+        executor.setTaskDecorator(instrument(meterRegistry, "mail"));
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor streamExecutor(MeterRegistry meterRegistry) {
+        return boundedExecutor(meterRegistry, "stream", streamPoolSize, streamQueueCapacity,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor exportExecutor(MeterRegistry meterRegistry) {
+        return boundedExecutor(meterRegistry, "export", exportPoolSize, exportQueueCapacity,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Keeps the default application executor (MVC async, un-named @Async) that
+     * Spring Boot would otherwise stop creating once other executors exist.
+     */
+    @Lazy
+    @Bean(name = { TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME })
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    private ThreadPoolTaskExecutor boundedExecutor(MeterRegistry meterRegistry, String name, int poolSize,
+            int queueCapacity, RejectedExecutionHandler policy) {
+        Counter rejected = Counter.builder("async_executor_rejected_total").tag("executor", name)
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(name + "-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, pool);
+        });
+        executor.setTaskDecorator(instrument(meterRegistry, name));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        Gauge.builder("async_executor_queue_depth", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .tag("executor", name).register(meterRegistry);
+        return executor;
+    }
+
+    private TaskDecorator instrument(MeterRegistry meterRegistry, String name) {
+        AtomicInteger active = new AtomicInteger();
+        Gauge.builder("async_executor_active_threads", active, AtomicInteger::get)
+                .tag("executor", name).register(meterRegistry);
+        Timer waitTimer = Timer.builder("async_executor_task_wait").tag("executor", name).register(meterRegistry);
+        Timer runTimer = Timer.builder("async_executor_task_duration").tag("executor", name).register(meterRegistry);
+
+        return task -> {
+            long submitted = System.nanoTime();
+            return () -> {
+                long started = System.nanoTime();
+                waitTimer.record(started - submitted, java.util.concurrent.TimeUnit.NANOSECONDS);
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                    runTimer.record(System.nanoTime() - started, java.util.concurrent.TimeUnit.NANOSECONDS);
+                }
+            };
+        };
+    }
+}
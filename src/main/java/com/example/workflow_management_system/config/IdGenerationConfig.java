@@ -0,0 +1,100 @@
+package com.example.workflow_management_system.config;
+
+import com.example.workflow_management_system.service.JobLeaseService;
+import com.example.workflow_management_system.util.TimeSortableIds;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+
+/**
+ * Gives {@link TimeSortableIds} its node id. A fixed {@code app.id.node-id}
+ * is used as is; with -1 the node leases the first free {@code id-node-N}
+ * row through {@link JobLeaseService} and keeps renewing it. A node that
+ * finds its lease taken over switches to another free one, and stops issuing
+ * ids while none is free, trying again on every renewal.
+ */
+@Configuration
+public class IdGenerationConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGenerationConfig.class);
+
+    private static final String LEASE_PREFIX = "id-node-";
+
+    private final JobLeaseService jobLeaseService;
+
+    @Value("${app.id.node-id:-1}")
+    private int nodeId;
+
+    @Value("${app.id.node-lease-seconds:300}")
+    private long leaseSeconds;
+
+    private volatile int leasedNodeId = -1;
+
+    public IdGenerationConfig(JobLeaseService jobLeaseService) {
+        this.jobLeaseService = jobLeaseService;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (nodeId >= 0) {
+            TimeSortableIds.configureNodeId(nodeId);
+            return;
+        }
+        if (!leaseNodeId()) {
+            throw new IllegalStateException("All " + (TimeSortableIds.MAX_NODE_ID + 1)
+                    + " id node leases are taken; set app.id.node-id or stop a node");
+        }
+    }
+
+    // Renewed well within the lease time so a slow poll does not lose it
+    @Scheduled(fixedDelayString = "${app.id.node-lease-renew-ms:60000}")
+    public void renewLease() {
+        if (nodeId >= 0) {
+            return;
+        }
+        int current = leasedNodeId;
+        if (current < 0) {
+            // Stopped after losing the lease earlier; retry until a node frees one
+            if (leaseNodeId()) {
+                logger.info("Id generation resumed");
+            }
+            return;
+        }
+        if (jobLeaseService.tryAcquire(LEASE_PREFIX + current, Duration.ofSeconds(leaseSeconds))) {
+            return;
+        }
+        logger.error("Lost the lease on id node {}", current);
+        if (!leaseNodeId()) {
+            TimeSortableIds.clearNodeId();
+            leasedNodeId = -1;
+            logger.error("No id node lease is free, id generation is stopped");
+        }
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        int current = leasedNodeId;
+        if (current >= 0) {
+            leasedNodeId = -1;
+            jobLeaseService.release(LEASE_PREFIX + current);
+        }
+    }
+
+    private boolean leaseNodeId() {
+        for (int id = 0; id <= TimeSortableIds.MAX_NODE_ID; id++) {
+            if (jobLeaseService.tryAcquire(LEASE_PREFIX + id, Duration.ofSeconds(leaseSeconds))) {
+                TimeSortableIds.configureNodeId(id);
+                leasedNodeId = id;
+                logger.info("Leased id node {}", id);
+                return true;
+            }
+        }
+        return false;
+    }
+}
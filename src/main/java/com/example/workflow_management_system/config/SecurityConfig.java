@@ -73,6 +73,10 @@ public class SecurityConfig {
                                 .sessionManagement(session -> session
                                                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                                 .authorizeHttpRequests(auth -> auth
+                                                // Completion of an already authorized async request
+                                                // (notification stream)
+                                                .dispatcherTypeMatchers(jakarta.servlet.DispatcherType.ASYNC)
+                                                .permitAll()
                                                 .requestMatchers("/api/auth/**", "/error").permitAll()
                                                 .requestMatchers("/", "/login", "/forgot-password", "/reset-password",
                                                                 "/set-password",
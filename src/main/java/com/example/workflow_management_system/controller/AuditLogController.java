@@ -15,16 +15,20 @@ import java.util.List;
 public class AuditLogController {
 
         private final AuditLogService auditLogService;
-        private final com.example.workflow_management_system.service.ExportService exportService;
 
-        public AuditLogController(AuditLogService auditLogService,
-                        com.example.workflow_management_system.service.ExportService exportService) {
+        public AuditLogController(AuditLogService auditLogService) {
                 this.auditLogService = auditLogService;
-                this.exportService = exportService;
         }
 
+        /**
+         * @deprecated streams the whole export on the request thread and holds
+         * a database cursor for as long as the client reads; use
+         * POST /api/exports/audit-logs, which runs it as a background job.
+         */
+        @Deprecated
         @GetMapping("/export")
         @PreAuthorize("hasAnyRole('GLOBAL_ADMIN', 'TENANT_ADMIN', 'TENANT_MANAGER')")
+        @io.swagger.v3.oas.annotations.Operation(summary = "Export Audit Logs (deprecated)", description = "Use POST /api/exports/audit-logs.", deprecated = true)
         public void exportAuditLogs(
                         @RequestParam(required = false) String entityType,
                         @RequestParam(required = false) String entityId,
@@ -44,6 +48,8 @@ public class AuditLogController {
                         return;
                 }
 
+                response.setHeader("Deprecation", "true");
+                response.setHeader("Link", "</api/exports/audit-logs>; rel=\"successor-version\"");
                 response.setContentType(
                                 exportFormat == com.example.workflow_management_system.service.ExportService.ExportFormat.CSV
                                                 ? "text/csv"
@@ -55,10 +61,8 @@ public class AuditLogController {
                                 "attachment; filename=\"audit_logs_" + java.time.LocalDateTime.now() + "." + extension
                                                 + "\"");
 
-                java.util.List<AuditLog> logs = auditLogService.getAuditLogsForExport(entityType, entityId, action,
-                                fromDate,
-                                toDate);
-                exportService.exportAuditLogs(logs, exportFormat, response.getOutputStream());
+                auditLogService.exportAuditLogs(entityType, entityId, action, fromDate, toDate, exportFormat,
+                                response.getOutputStream());
         }
 
         @GetMapping
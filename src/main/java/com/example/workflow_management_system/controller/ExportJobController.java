@@ -0,0 +1,185 @@
+package com.example.workflow_management_system.controller;
+
+import com.example.workflow_management_system.dto.ExportJobResponse;
+import com.example.workflow_management_system.model.RequestStatus;
+import com.example.workflow_management_system.service.AuditLogService;
+import com.example.workflow_management_system.service.ExportJobService;
+import com.example.workflow_management_system.service.ExportService;
+import com.example.workflow_management_system.service.RequestAssignmentService;
+import com.example.workflow_management_system.service.RequestService;
+import com.example.workflow_management_system.util.ByteRange;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * Background exports: POST starts a job and returns its id, GET polls it, and
+ * the download serves the gzipped artifact with Range support so a broken
+ * download can resume.
+ */
+@RestController
+@RequestMapping("/api/exports")
+@Tag(name = "Exports", description = "Background export jobs")
+public class ExportJobController {
+
+    // Tomcat sends these files itself, straight from the page cache
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ExportJobService exportJobService;
+    private final RequestService requestService;
+    private final AuditLogService auditLogService;
+    private final RequestAssignmentService requestAssignmentService;
+    private final ExportService exportService;
+
+    public ExportJobController(ExportJobService exportJobService,
+            RequestService requestService,
+            AuditLogService auditLogService,
+            RequestAssignmentService requestAssignmentService,
+            ExportService exportService) {
+        this.exportJobService = exportJobService;
+        this.requestService = requestService;
+        this.auditLogService = auditLogService;
+        this.requestAssignmentService = requestAssignmentService;
+        this.exportService = exportService;
+    }
+
+    @PostMapping("/requests")
+    @Operation(summary = "Export Requests", description = "Starts a background export of the requests matching the filters.")
+    public ResponseEntity<ExportJobResponse> exportRequests(
+            @RequestParam(required = false) RequestStatus status,
+            @RequestParam(required = false) Long workflowId,
+            @RequestParam(required = false) Long createdByUserId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
+            @RequestParam(defaultValue = "csv") String format) {
+        ExportService.ExportFormat exportFormat = parseFormat(format);
+        return accepted(exportJobService.submit(ExportJobService.Kind.REQUESTS, exportFormat,
+                out -> requestService.exportRequests(status, workflowId, createdByUserId, fromDate, toDate,
+                        exportFormat, out)));
+    }
+
+    @PostMapping("/audit-logs")
+    @PreAuthorize("hasAnyRole('GLOBAL_ADMIN', 'TENANT_ADMIN', 'TENANT_MANAGER')")
+    @Operation(summary = "Export Audit Logs", description = "Starts a background export of the audit logs matching the filters.")
+    public ResponseEntity<ExportJobResponse> exportAuditLogs(
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) String entityId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
+            @RequestParam(defaultValue = "csv") String format) {
+        ExportService.ExportFormat exportFormat = parseFormat(format);
+        return accepted(exportJobService.submit(ExportJobService.Kind.AUDIT_LOGS, exportFormat,
+                out -> auditLogService.exportAuditLogs(entityType, entityId, action, fromDate, toDate,
+                        exportFormat, out)));
+    }
+
+    @PostMapping("/assignments")
+    @Operation(summary = "Export Assignments", description = "Starts a background export of the caller's assignments.")
+    public ResponseEntity<ExportJobResponse> exportAssignments(@RequestParam(defaultValue = "csv") String format) {
+        ExportService.ExportFormat exportFormat = parseFormat(format);
+        return accepted(exportJobService.submit(ExportJobService.Kind.ASSIGNMENTS, exportFormat,
+                out -> exportService.exportAssignments(requestAssignmentService.getMyAssignmentsForExport(),
+                        exportFormat, out)));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ExportJobResponse> getExportJob(@PathVariable Long id) {
+        return ResponseEntity.ok(exportJobService.getJob(id));
+    }
+
+    /**
+     * Sends the gzipped artifact. A single {@code Range} is answered with 206
+     * (honouring {@code If-Range}), anything else with the whole file.
+     */
+    @GetMapping("/{id}/download")
+    public void download(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        ExportJobService.Download download = exportJobService.getDownload(id);
+        long size = download.size();
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        ByteRange range = null;
+        if (ifRange == null || ifRange.equals(download.etag())) {
+            try {
+                range = ByteRange.parse(request.getHeader(HttpHeaders.RANGE), size);
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+        }
+
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + download.fileName() + "\"");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, download.etag());
+
+        long start = 0;
+        long length = size;
+        if (range != null) {
+            start = range.start();
+            length = range.length();
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + size);
+        }
+        response.setContentLengthLong(length);
+        if (length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, download.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        try (FileChannel file = FileChannel.open(download.file(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = file.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static ExportService.ExportFormat parseFormat(String format) {
+        try {
+            return ExportService.ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid format. Supported: csv, xlsx");
+        }
+    }
+
+    private static ResponseEntity<ExportJobResponse> accepted(ExportJobResponse job) {
+        return ResponseEntity.accepted()
+                .header(HttpHeaders.LOCATION, "/api/exports/" + job.id())
+                .body(job);
+    }
+}
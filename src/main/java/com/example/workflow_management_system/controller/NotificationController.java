@@ -1,9 +1,14 @@
 package com.example.workflow_management_system.controller;
 
-import com.example.workflow_management_system.model.Notification;
+import com.example.workflow_management_system.dto.NotificationReadUpToRequest;
+import com.example.workflow_management_system.dto.NotificationResponse;
+import com.example.workflow_management_system.security.SecurityUtils;
 import com.example.workflow_management_system.service.NotificationService;
+import com.example.workflow_management_system.service.NotificationStreamService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -11,15 +16,24 @@ import java.util.List;
 @RequestMapping("/api/notifications")
 public class NotificationController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationService notificationService;
+    private final NotificationStreamService notificationStreamService;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService,
+            NotificationStreamService notificationStreamService) {
         this.notificationService = notificationService;
+        this.notificationStreamService = notificationStreamService;
     }
 
+    // Newest first; pass the last id of a page as `before` to load older ones
     @GetMapping
-    public ResponseEntity<List<Notification>> getRecentNotifications(@RequestParam(defaultValue = "10") int limit) {
-        return ResponseEntity.ok(notificationService.getMyRecentNotifications(limit));
+    public ResponseEntity<List<NotificationResponse>> getRecentNotifications(
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(notificationService.getMyRecentNotifications(before,
+                Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
     }
 
     @GetMapping("/unread-count")
@@ -27,9 +41,35 @@ public class NotificationController {
         return ResponseEntity.ok(notificationService.getMyUnreadCount());
     }
 
+    // Server-sent events: notification, unread-count, request-updated
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return notificationStreamService.connect(SecurityUtils.getCurrentUser(),
+                notificationService.getMyUnreadCount());
+    }
+
     @PostMapping("/{id}/read")
     public ResponseEntity<Void> markAsRead(@PathVariable Long id) {
         notificationService.markAsRead(id);
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/read-all")
+    public ResponseEntity<Void> markAllAsRead() {
+        notificationService.markAllAsRead();
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/read-up-to")
+    public ResponseEntity<Void> markAsReadUpTo(@RequestBody NotificationReadUpToRequest request) {
+        notificationService.markAsReadUpTo(request);
+        return ResponseEntity.ok().build();
+    }
+
+    // Deletes read notifications, optionally only up to an id or time
+    @DeleteMapping("/read")
+    public ResponseEntity<Integer> deleteRead(@RequestParam(required = false) Long upToId,
+            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) java.time.LocalDateTime before) {
+        return ResponseEntity.ok(notificationService.deleteRead(new NotificationReadUpToRequest(upToId, before)));
+    }
 }
@@ -22,7 +22,13 @@ public class RequestAssignmentController {
         this.exportService = exportService;
     }
 
+    /**
+     * @deprecated streams the whole export on the request thread; use
+     * POST /api/exports/assignments, which runs it as a background job.
+     */
+    @Deprecated
     @GetMapping("/assignments/export")
+    @io.swagger.v3.oas.annotations.Operation(summary = "Export Assignments (deprecated)", description = "Use POST /api/exports/assignments.", deprecated = true)
     public void exportAssignments(
             @RequestParam(defaultValue = "csv") String format,
             jakarta.servlet.http.HttpServletResponse response) throws java.io.IOException {
@@ -37,6 +43,8 @@ public class RequestAssignmentController {
             return;
         }
 
+        response.setHeader("Deprecation", "true");
+        response.setHeader("Link", "</api/exports/assignments>; rel=\"successor-version\"");
         response.setContentType(
                 exportFormat == com.example.workflow_management_system.service.ExportService.ExportFormat.CSV
                         ? "text/csv"
@@ -23,17 +23,24 @@ public class RequestController {
 
     private final RequestService requestService;
     private final com.example.workflow_management_system.service.RequestAssignmentService requestAssignmentService;
-    private final com.example.workflow_management_system.service.ExportService exportService;
+    private final com.example.workflow_management_system.service.RequestBulkIntakeService requestBulkIntakeService;
 
     public RequestController(RequestService requestService,
             com.example.workflow_management_system.service.RequestAssignmentService requestAssignmentService,
-            com.example.workflow_management_system.service.ExportService exportService) {
+            com.example.workflow_management_system.service.RequestBulkIntakeService requestBulkIntakeService) {
         this.requestService = requestService;
         this.requestAssignmentService = requestAssignmentService;
-        this.exportService = exportService;
+        this.requestBulkIntakeService = requestBulkIntakeService;
     }
 
+    /**
+     * @deprecated streams the whole export on the request thread and holds a
+     * database cursor for as long as the client reads; use
+     * POST /api/exports/requests, which runs it as a background job.
+     */
+    @Deprecated
     @GetMapping("/export")
+    @Operation(summary = "Export Requests (deprecated)", description = "Use POST /api/exports/requests.", deprecated = true)
     public void exportRequests(
             @RequestParam(required = false) com.example.workflow_management_system.model.RequestStatus status,
             @RequestParam(required = false) Long workflowId,
@@ -52,6 +59,8 @@ public class RequestController {
             return;
         }
 
+        response.setHeader("Deprecation", "true");
+        response.setHeader("Link", "</api/exports/requests>; rel=\"successor-version\"");
         response.setContentType(
                 exportFormat == com.example.workflow_management_system.service.ExportService.ExportFormat.CSV
                         ? "text/csv"
@@ -62,22 +71,17 @@ public class RequestController {
         response.setHeader("Content-Disposition",
                 "attachment; filename=\"requests_" + java.time.LocalDateTime.now() + "." + extension + "\"");
 
-        java.util.List<RequestResponse> requests;
-        com.example.workflow_management_system.security.UserPrincipal currentUser = com.example.workflow_management_system.security.SecurityUtils
-                .getCurrentUser();
-
-        if (currentUser.getAuthorities().stream()
-                .anyMatch(a -> a.getAuthority().equals("ROLE_TENANT_MANAGER")
-                        || a.getAuthority().equals("ROLE_TENANT_ADMIN")
-                        || a.getAuthority().equals("ROLE_GLOBAL_ADMIN"))) {
-            requests = requestService.getAllRequestsForExport(status, workflowId, createdByUserId, fromDate, toDate);
-        } else {
-            // Users export their own requests with applied filters
-            requests = requestService.getAllRequestsForExport(status, workflowId, currentUser.getId(), fromDate,
-                    toDate);
-        }
+        requestService.exportRequests(status, workflowId, createdByUserId, fromDate, toDate, exportFormat,
+                response.getOutputStream());
+    }
 
-        exportService.exportRequests(requests, exportFormat, response.getOutputStream());
+    @PostMapping(value = "/bulk", consumes = { "application/x-ndjson", "application/json" }, produces = "application/x-ndjson")
+    @Operation(summary = "Bulk Create Requests", description = "Streams NDJSON (or a JSON array) of requests and reports progress as NDJSON lines.")
+    public void bulkCreateRequests(jakarta.servlet.http.HttpServletRequest request,
+            jakarta.servlet.http.HttpServletResponse response) throws java.io.IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        requestBulkIntakeService.ingest(request.getInputStream(), response.getOutputStream());
     }
 
     @PostMapping
@@ -138,6 +142,13 @@ public class RequestController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/actions/bulk")
+    @Operation(summary = "Bulk Approve/Reject", description = "Approves or rejects a list of requests and reports the outcome per request.")
+    public ResponseEntity<com.example.workflow_management_system.dto.BulkRequestActionResponse> bulkAction(
+            @Valid @RequestBody com.example.workflow_management_system.dto.BulkRequestActionRequest request) {
+        return ResponseEntity.ok(requestService.bulkProcessActions(request));
+    }
+
     @PostMapping("/{id}/reject")
     public ResponseEntity<Void> rejectRequest(@PathVariable Long id, @RequestBody java.util.Map<String, String> body) {
         requestService.rejectRequest(id, body.getOrDefault("comments", ""));
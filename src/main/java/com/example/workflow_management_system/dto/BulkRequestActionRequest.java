@@ -0,0 +1,14 @@
+package com.example.workflow_management_system.dto;
+
+import com.example.workflow_management_system.model.ActionType;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkRequestActionRequest(
+        @NotEmpty(message = "At least one request ID is required") @Size(max = 1000, message = "At most 1000 requests per call") List<Long> requestIds,
+        @NotNull(message = "Action type is required") ActionType actionType,
+        String comments) {
+}
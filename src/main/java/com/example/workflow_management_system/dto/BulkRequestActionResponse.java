@@ -0,0 +1,10 @@
+package com.example.workflow_management_system.dto;
+
+import java.util.List;
+
+public record BulkRequestActionResponse(
+        int total,
+        int succeeded,
+        int failed,
+        List<BulkRequestActionResult> results) {
+}
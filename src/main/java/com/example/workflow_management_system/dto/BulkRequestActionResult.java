@@ -0,0 +1,10 @@
+package com.example.workflow_management_system.dto;
+
+import com.example.workflow_management_system.model.RequestStatus;
+
+public record BulkRequestActionResult(
+        Long requestId,
+        boolean success,
+        RequestStatus status,
+        String message) {
+}
@@ -0,0 +1,7 @@
+package com.example.workflow_management_system.dto;
+
+public record BulkRequestIntakeError(
+        int index,
+        Long workflowId,
+        String message) {
+}
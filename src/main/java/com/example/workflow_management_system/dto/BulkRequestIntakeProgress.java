@@ -0,0 +1,12 @@
+package com.example.workflow_management_system.dto;
+
+import java.util.List;
+
+public record BulkRequestIntakeProgress(
+        String type, // PROGRESS or SUMMARY
+        int processed,
+        int created,
+        int failed,
+        long elapsedMillis,
+        List<BulkRequestIntakeError> errors) {
+}
@@ -0,0 +1,23 @@
+package com.example.workflow_management_system.dto;
+
+import com.example.workflow_management_system.model.ExportJobStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of an export job. bytesWritten counts the uncompressed export
+ * written so far; fileSize is the size of the gzipped artifact once
+ * COMPLETED.
+ */
+public record ExportJobResponse(
+        Long id,
+        String kind,
+        String format,
+        ExportJobStatus status,
+        long bytesWritten,
+        Long fileSize,
+        String error,
+        @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS") LocalDateTime createdAt,
+        @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS") LocalDateTime completedAt,
+        String downloadUrl) {
+}
@@ -0,0 +1,11 @@
+package com.example.workflow_management_system.dto;
+
+import java.time.LocalDateTime;
+
+public record NotificationPush(
+        Long id,
+        String message,
+        String type,
+        Long requestId,
+        @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS") LocalDateTime createdAt) {
+}
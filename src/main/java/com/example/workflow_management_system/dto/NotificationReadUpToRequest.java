@@ -0,0 +1,9 @@
+package com.example.workflow_management_system.dto;
+
+import java.time.LocalDateTime;
+
+// Exactly one of the two: the newest notification id to mark, or a point in time
+public record NotificationReadUpToRequest(
+        Long id,
+        LocalDateTime timestamp) {
+}
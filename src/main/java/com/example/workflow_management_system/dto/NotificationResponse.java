@@ -0,0 +1,12 @@
+package com.example.workflow_management_system.dto;
+
+import java.time.LocalDateTime;
+
+public record NotificationResponse(
+        Long id,
+        String message,
+        String type,
+        Long requestId,
+        boolean read,
+        @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS") LocalDateTime createdAt) {
+}
@@ -0,0 +1,18 @@
+package com.example.workflow_management_system.dto;
+
+import com.example.workflow_management_system.model.RequestStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a request export, selected directly by the export query so
+ * no Request entities (or their payloads) are loaded.
+ */
+public record RequestExportRow(
+        Long id,
+        String workflowName,
+        RequestStatus status,
+        String currentStepName,
+        String createdByUsername,
+        LocalDateTime createdAt) {
+}
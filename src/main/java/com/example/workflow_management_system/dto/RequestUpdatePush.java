@@ -0,0 +1,9 @@
+package com.example.workflow_management_system.dto;
+
+import com.example.workflow_management_system.model.RequestStatus;
+
+public record RequestUpdatePush(
+        Long requestId,
+        RequestStatus status,
+        String currentStep) {
+}
@@ -1,6 +1,12 @@
 package com.example.workflow_management_system.dto;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 
-public record TenantRequest(@NotBlank(message = "Tenant name must not be blank") String name) {
+public record TenantRequest(@NotBlank(message = "Tenant name must not be blank") String name,
+        // Left unchanged when null
+        @Min(0) @Max(1440) Integer mailDigestMinutes,
+        // Resets mailDigestMinutes to null, i.e. app.mail.digest.default-minutes
+        boolean clearMailDigestMinutes) {
 }
@@ -7,5 +7,6 @@ public record TenantResponse(
                 Long id,
                 String name,
                 TenantStatus status,
+                Integer mailDigestMinutes,
                 @com.fasterxml.jackson.annotation.JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS") LocalDateTime createdAt) {
 }
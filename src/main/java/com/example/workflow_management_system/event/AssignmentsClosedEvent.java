@@ -0,0 +1,18 @@
+package com.example.workflow_management_system.event;
+
+/**
+ * Published when the open assignments of a request are completed or
+ * cancelled in bulk.
+ */
+public class AssignmentsClosedEvent {
+
+    private final Long requestId;
+
+    public AssignmentsClosedEvent(Long requestId) {
+        this.requestId = requestId;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.workflow_management_system.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published once per step fan-out instead of one {@link NotificationEvent}
+ * per assignee, so a step with many eligible approvers costs a single async
+ * hand-off.
+ */
+public class AssignmentsCreatedEvent {
+
+    public record Assignee(Long assignmentId, String username, String email) {
+    }
+
+    private final Long requestId;
+    private final Long tenantId;
+    private final String stepName;
+    private final String tenantName;
+    private final LocalDateTime dueAt;
+    private final List<Assignee> assignees;
+
+    @com.fasterxml.jackson.annotation.JsonCreator
+    public AssignmentsCreatedEvent(@com.fasterxml.jackson.annotation.JsonProperty("requestId") Long requestId,
+            @com.fasterxml.jackson.annotation.JsonProperty("tenantId") Long tenantId,
+            @com.fasterxml.jackson.annotation.JsonProperty("stepName") String stepName,
+            @com.fasterxml.jackson.annotation.JsonProperty("tenantName") String tenantName,
+            @com.fasterxml.jackson.annotation.JsonProperty("dueAt") LocalDateTime dueAt,
+            @com.fasterxml.jackson.annotation.JsonProperty("assignees") List<Assignee> assignees) {
+        this.requestId = requestId;
+        this.tenantId = tenantId;
+        this.stepName = stepName;
+        this.tenantName = tenantName;
+        this.dueAt = dueAt;
+        this.assignees = assignees;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public String getStepName() {
+        return stepName;
+    }
+
+    public String getTenantName() {
+        return tenantName;
+    }
+
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+
+    public List<Assignee> getAssignees() {
+        return assignees;
+    }
+}
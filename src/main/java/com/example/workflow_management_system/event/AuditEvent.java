@@ -1,5 +1,6 @@
 package com.example.workflow_management_system.event;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 public class AuditEvent {
@@ -9,15 +10,30 @@ public class AuditEvent {
     private final String performedBy;
     private final Long tenantId;
     private final Map<String, Object> details;
+    private final LocalDateTime timestamp;
 
     public AuditEvent(String entityType, String entityId, String action, String performedBy, Long tenantId,
             Map<String, Object> details) {
+        // Taken here, not when the batched writer gets to it
+        this(entityType, entityId, action, performedBy, tenantId, details, LocalDateTime.now());
+    }
+
+    // Used when the event is read back from the event journal
+    @com.fasterxml.jackson.annotation.JsonCreator
+    public AuditEvent(@com.fasterxml.jackson.annotation.JsonProperty("entityType") String entityType,
+            @com.fasterxml.jackson.annotation.JsonProperty("entityId") String entityId,
+            @com.fasterxml.jackson.annotation.JsonProperty("action") String action,
+            @com.fasterxml.jackson.annotation.JsonProperty("performedBy") String performedBy,
+            @com.fasterxml.jackson.annotation.JsonProperty("tenantId") Long tenantId,
+            @com.fasterxml.jackson.annotation.JsonProperty("details") Map<String, Object> details,
+            @com.fasterxml.jackson.annotation.JsonProperty("timestamp") LocalDateTime timestamp) {
         this.entityType = entityType;
         this.entityId = entityId;
         this.action = action;
         this.performedBy = performedBy;
         this.tenantId = tenantId;
         this.details = details;
+        this.timestamp = timestamp;
     }
 
     public String getEntityType() {
@@ -43,4 +59,8 @@ public class AuditEvent {
     public Map<String, Object> getDetails() {
         return details;
     }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
 }
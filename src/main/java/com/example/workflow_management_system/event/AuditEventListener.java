@@ -1,47 +1,28 @@
 package com.example.workflow_management_system.event;
 
-import com.example.workflow_management_system.model.AuditLog;
-import com.example.workflow_management_system.repository.AuditLogRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.workflow_management_system.service.AuditLogWriter;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 @Component
 public class AuditEventListener {
 
-    private final AuditLogRepository auditLogRepository;
-    private final ObjectMapper objectMapper;
+    private final AuditLogWriter auditLogWriter;
+    private final EventJournal eventJournal;
 
-    public AuditEventListener(AuditLogRepository auditLogRepository, ObjectMapper objectMapper) {
-        this.auditLogRepository = auditLogRepository;
-        this.objectMapper = objectMapper;
+    public AuditEventListener(AuditLogWriter auditLogWriter, EventJournal eventJournal) {
+        this.auditLogWriter = auditLogWriter;
+        this.eventJournal = eventJournal;
     }
 
-    @Async
+    // Runs on the publishing thread: the event is journaled (a memory copy)
+    // and handed to the writer's ring buffer, a single offer unless the buffer
+    // is full. The insert happens in batches on the writer thread, which
+    // acknowledges the journal entry afterwards. Failures in audit logging
+    // must NOT affect main API flow, so a buffer that stays full only slows
+    // the caller briefly and leaves the event to the journal.
     @EventListener
     public void handleAuditEvent(AuditEvent event) {
-        String detailsJson = "{}";
-        if (event.getDetails() != null) {
-            try {
-                detailsJson = objectMapper.writeValueAsString(event.getDetails());
-            } catch (JsonProcessingException e) {
-                // Ignore error, keep empty or log error if needed
-                // Since requirement is "Failures in audit logging must NOT affect main API
-                // flow",
-                // ignoring here is safe.
-            }
-        }
-
-        AuditLog auditLog = new AuditLog(
-                event.getEntityType(),
-                event.getEntityId(),
-                event.getAction(),
-                event.getPerformedBy(),
-                event.getTenantId(),
-                detailsJson);
-
-        auditLogRepository.save(auditLog);
+        auditLogWriter.enqueue(event, eventJournal.append(event));
     }
 }
@@ -0,0 +1,198 @@
+package com.example.workflow_management_system.event;
+
+import com.example.workflow_management_system.util.MappedSegmentLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Local write-ahead journal for the audit and notification events that are
+ * handled asynchronously. Listeners append an event before queueing it and
+ * acknowledge it once it has been written or mailed; whatever is still
+ * unacknowledged when the JVM stops is handed back by {@link #replay} on the
+ * next start (see EventJournalReplayer). While running, an event left
+ * unacknowledged for {@code redeliver-after-ms} is handed out again by
+ * {@link #redeliver}; after {@code max-deliveries} attempts it is appended to
+ * the {@code dead-letter.ndjson} file next to the journal and dropped from it.
+ * Backed by a {@link MappedSegmentLog}, so an append costs a memory copy, not
+ * a disk write.
+ *
+ * If the journal cannot take an event (disabled, full disk, oversized
+ * payload) the event is still processed, just without durability: its offset
+ * is {@link #NOT_JOURNALED} and acknowledging it does nothing.
+ */
+@Component
+public class EventJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventJournal.class);
+
+    public static final long NOT_JOURNALED = -1L;
+
+    static final byte TYPE_AUDIT = 1;
+    static final byte TYPE_NOTIFICATION = 2;
+
+    private static final String DEAD_LETTER_FILE = "dead-letter.ndjson";
+
+    @FunctionalInterface
+    public interface ReplayHandler {
+        void replay(Object event, long offset);
+    }
+
+    private final ObjectMapper objectMapper;
+    private final MappedSegmentLog log;
+    private final java.nio.file.Path deadLetterFile;
+
+    private final Counter appendedCounter;
+    private final Counter appendFailedCounter;
+    private final Counter replayedCounter;
+    private final Counter redeliveredCounter;
+    private final Counter deadLetteredCounter;
+
+    @Value("${app.event-journal.redeliver-after-ms:60000}")
+    private long redeliverAfterMs;
+
+    @Value("${app.event-journal.max-deliveries:5}")
+    private int maxDeliveries;
+
+    public EventJournal(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${app.event-journal.enabled:true}") boolean enabled,
+            @Value("${app.event-journal.dir:data/event-journal}") String directory,
+            @Value("${app.event-journal.segment-size-mb:16}") int segmentSizeMb) {
+        this.objectMapper = objectMapper;
+        this.log = enabled ? MappedSegmentLog.open(Paths.get(directory), segmentSizeMb * 1024 * 1024) : null;
+        this.deadLetterFile = Paths.get(directory).resolve(DEAD_LETTER_FILE);
+
+        this.appendedCounter = meterRegistry.counter("event_journal_appended_total");
+        this.appendFailedCounter = meterRegistry.counter("event_journal_append_failed_total");
+        this.replayedCounter = meterRegistry.counter("event_journal_replayed_total");
+        this.redeliveredCounter = meterRegistry.counter("event_journal_redelivered_total");
+        this.deadLetteredCounter = meterRegistry.counter("event_journal_dead_lettered_total");
+        Gauge.builder("event_journal_outstanding", this, j -> j.log != null ? j.log.outstandingCount() : 0)
+                .register(meterRegistry);
+    }
+
+    public long append(AuditEvent event) {
+        return append(TYPE_AUDIT, event);
+    }
+
+    public long append(NotificationEvent event) {
+        return append(TYPE_NOTIFICATION, event);
+    }
+
+    public void acknowledge(long offset) {
+        if (log != null && offset != NOT_JOURNALED) {
+            try {
+                log.acknowledge(offset);
+            } catch (RuntimeException e) {
+                // The event is done; at worst it is replayed after a restart
+                logger.warn("Could not journal the ack of offset {}", offset, e);
+            }
+        }
+    }
+
+    /**
+     * Hands every event left unacknowledged by the previous run to the
+     * handler. Must be called once, after the consumers are ready.
+     */
+    public int replay(ReplayHandler handler) {
+        if (log == null) {
+            return 0;
+        }
+        int replayed = log.replay((offset, type, payload) -> deliver(handler, offset, type, payload));
+        replayedCounter.increment(replayed);
+        return replayed;
+    }
+
+    /**
+     * Hands the events that have been waiting for their ack too long to the
+     * handler again, and dead-letters the ones that used up their deliveries.
+     */
+    public int redeliver(ReplayHandler handler) {
+        if (log == null) {
+            return 0;
+        }
+        int redelivered = log.redeliver(redeliverAfterMs, maxDeliveries,
+                (offset, type, payload) -> {
+                    redeliveredCounter.increment();
+                    deliver(handler, offset, type, payload);
+                },
+                this::deadLetter);
+        if (redelivered > 0) {
+            logger.warn("Redelivered {} unacknowledged journal entries", redelivered);
+        }
+        return redelivered;
+    }
+
+    @Scheduled(fixedDelayString = "${app.event-journal.checkpoint-interval-ms:1000}")
+    public void checkpoint() {
+        if (log != null) {
+            log.checkpoint(false);
+        }
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void close() {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    private void deliver(ReplayHandler handler, long offset, byte type, byte[] payload) {
+        Class<?> eventType = type == TYPE_AUDIT ? AuditEvent.class : NotificationEvent.class;
+        Object event;
+        try {
+            event = objectMapper.readValue(payload, eventType);
+        } catch (IOException e) {
+            logger.error("Skipping unreadable journal entry at offset {}", offset, e);
+            log.acknowledge(offset);
+            return;
+        }
+        try {
+            handler.replay(event, offset);
+        } catch (RuntimeException e) {
+            // Stays outstanding for the next redelivery
+            logger.error("Failed to hand over journal entry at offset {}", offset, e);
+        }
+    }
+
+    // One JSON line per entry, for someone to look at and replay by hand
+    private void deadLetter(long offset, byte type, byte[] payload) {
+        deadLetteredCounter.increment();
+        String kind = type == TYPE_AUDIT ? "AUDIT" : "NOTIFICATION";
+        logger.error("Giving up on journal entry at offset {} ({}) after {} deliveries, see {}", offset, kind,
+                maxDeliveries, deadLetterFile);
+        try {
+            String line = "{\"offset\":" + offset + ",\"type\":\"" + kind + "\",\"event\":"
+                    + new String(payload, java.nio.charset.StandardCharsets.UTF_8) + "}\n";
+            java.nio.file.Files.writeString(deadLetterFile, line, java.nio.file.StandardOpenOption.CREATE,
+                    java.nio.file.StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.error("Could not write dead-lettered journal entry at offset {}", offset, e);
+        }
+    }
+
+    private long append(byte type, Object event) {
+        if (log == null) {
+            return NOT_JOURNALED;
+        }
+        try {
+            long offset = log.append(type, objectMapper.writeValueAsBytes(event));
+            appendedCounter.increment();
+            return offset;
+        } catch (IOException | RuntimeException e) {
+            appendFailedCounter.increment();
+            logger.warn("Could not journal {}, processing it without durability", event.getClass().getSimpleName(),
+                    e);
+            return NOT_JOURNALED;
+        }
+    }
+}
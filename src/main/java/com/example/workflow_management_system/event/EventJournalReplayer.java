@@ -0,0 +1,57 @@
+package com.example.workflow_management_system.event;
+
+import com.example.workflow_management_system.service.AuditLogWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-delivers the audit and notification events the previous run journaled
+ * but never finished, once the application is up, and afterwards the ones of
+ * this run that are still not acknowledged after a while.
+ */
+@Component
+public class EventJournalReplayer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventJournalReplayer.class);
+
+    private final EventJournal eventJournal;
+    private final AuditLogWriter auditLogWriter;
+    private final NotificationEventListener notificationEventListener;
+
+    private volatile boolean ready;
+
+    public EventJournalReplayer(EventJournal eventJournal, AuditLogWriter auditLogWriter,
+            NotificationEventListener notificationEventListener) {
+        this.eventJournal = eventJournal;
+        this.auditLogWriter = auditLogWriter;
+        this.notificationEventListener = notificationEventListener;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replay() {
+        int replayed = eventJournal.replay(this::deliver);
+        ready = true;
+        if (replayed > 0) {
+            logger.info("Replayed {} journaled events from the previous run", replayed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.event-journal.redeliver-interval-ms:10000}")
+    public void redeliver() {
+        if (ready) {
+            eventJournal.redeliver(this::deliver);
+        }
+    }
+
+    private void deliver(Object event, long offset) {
+        if (event instanceof AuditEvent auditEvent) {
+            auditLogWriter.enqueue(auditEvent, offset);
+        } else if (event instanceof NotificationEvent notificationEvent) {
+            notificationEventListener.dispatch(notificationEvent, offset);
+        }
+    }
+}
@@ -8,8 +8,11 @@ public class NotificationEvent {
     private final String tenantName;
     private final Map<String, Object> metadata;
 
-    public NotificationEvent(NotificationType type, String recipientEmail, String tenantName,
-            Map<String, Object> metadata) {
+    @com.fasterxml.jackson.annotation.JsonCreator
+    public NotificationEvent(@com.fasterxml.jackson.annotation.JsonProperty("type") NotificationType type,
+            @com.fasterxml.jackson.annotation.JsonProperty("recipientEmail") String recipientEmail,
+            @com.fasterxml.jackson.annotation.JsonProperty("tenantName") String tenantName,
+            @com.fasterxml.jackson.annotation.JsonProperty("metadata") Map<String, Object> metadata) {
         this.type = type;
         this.recipientEmail = recipientEmail;
         this.tenantName = tenantName;
@@ -1,69 +1,89 @@
 package com.example.workflow_management_system.event;
 
+import com.example.workflow_management_system.service.MailDigestService;
 import com.example.workflow_management_system.service.MailService;
+import com.example.workflow_management_system.service.MailTemplate;
+import com.example.workflow_management_system.service.MailTemplateService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
+import java.util.Objects;
 
 @Component
 public class NotificationEventListener {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationEventListener.class);
     private final MailService mailService;
+    private final MailDigestService mailDigestService;
+    private final MailTemplateService mailTemplateService;
+    private final EventJournal eventJournal;
+    private final java.util.concurrent.Executor notificationExecutor;
 
     @org.springframework.beans.factory.annotation.Value("${app.frontend.url}")
     private String frontendUrl;
 
-    public NotificationEventListener(MailService mailService) {
+    public NotificationEventListener(MailService mailService, MailDigestService mailDigestService,
+            MailTemplateService mailTemplateService, EventJournal eventJournal,
+            @org.springframework.beans.factory.annotation.Qualifier("notificationExecutor")
+            java.util.concurrent.Executor notificationExecutor) {
         this.mailService = mailService;
+        this.mailDigestService = mailDigestService;
+        this.mailTemplateService = mailTemplateService;
+        this.eventJournal = eventJournal;
+        this.notificationExecutor = notificationExecutor;
     }
 
-    @Async
+    // Journal the event on the publishing thread so it survives a restart
+    // while queued, then handle it on the notification executor
     @EventListener
+    public void onNotificationEvent(NotificationEvent event) {
+        dispatch(event, eventJournal.append(event));
+    }
+
+    // Acknowledged only once handled; a failed event stays in the journal,
+    // which hands it out again later
+    public void dispatch(NotificationEvent event, long journalOffset) {
+        notificationExecutor.execute(() -> {
+            try {
+                handleNotificationEvent(event);
+            } catch (RuntimeException e) {
+                logger.error("Failed to process notification event: {}", event.getType(), e);
+                return;
+            }
+            eventJournal.acknowledge(journalOffset);
+        });
+    }
+
     public void handleNotificationEvent(NotificationEvent event) {
         logger.info("Received notification event: {}", event.getType());
-        try {
-            switch (event.getType()) {
-                case USER_INVITED:
-                    handleUserInvited(event);
-                    break;
-                case REQUEST_ASSIGNED:
-                    handleRequestAssigned(event);
-                    break;
-                case REQUEST_APPROVED:
-                    handleRequestApproved(event);
-                    break;
-                case REQUEST_REJECTED:
-                    handleRequestRejected(event);
-                    break;
-                default:
-                    logger.warn("Unknown notification type: {}", event.getType());
-            }
-        } catch (Exception e) {
-            logger.error("Failed to process notification event: {}", event.getType(), e);
+        switch (event.getType()) {
+            case USER_INVITED:
+                handleUserInvited(event);
+                break;
+            case REQUEST_ASSIGNED:
+                handleRequestAssigned(event);
+                break;
+            case REQUEST_APPROVED:
+                handleRequestApproved(event);
+                break;
+            case REQUEST_REJECTED:
+                handleRequestRejected(event);
+                break;
+            default:
+                logger.warn("Unknown notification type: {}", event.getType());
         }
     }
 
     private void handleUserInvited(NotificationEvent event) {
         logger.info("Processing USER_INVITED for {}", event.getRecipientEmail());
         Map<String, Object> metadata = event.getMetadata();
-        String name = (String) metadata.get("name");
-        String token = (String) metadata.get("token");
-        String inviteLink = frontendUrl + "/set-password?token=" + token;
-
-        String htmlMsg = mailService.loadTemplate("invitation.html");
-        if (htmlMsg.isEmpty()) {
-            logger.error("Template invitation.html not found");
-            return;
-        }
-
-        htmlMsg = htmlMsg.replace("{{name}}", name)
-                .replace("{{tenantName}}", event.getTenantName())
-                .replace("{{inviteLink}}", inviteLink);
+        String htmlMsg = mailTemplateService.render("invitation", Map.of(
+                "name", Objects.toString(metadata.get("name"), ""),
+                "tenantName", Objects.toString(event.getTenantName(), ""),
+                "inviteLink", frontendUrl + "/set-password?token=" + metadata.get("token")));
 
         logger.info("Sending invite email to {}", event.getRecipientEmail());
         mailService.sendHtmlMail(event.getRecipientEmail(), "You're invited to join " + event.getTenantName(), htmlMsg);
@@ -71,87 +91,59 @@ public class NotificationEventListener {
 
     private void handleRequestAssigned(NotificationEvent event) {
         Map<String, Object> metadata = event.getMetadata();
-        String assigneeName = (String) metadata.get("assigneeName"); // Assuming mapped
-        // We might need a template for this.
-        // Since I can't create new files easily without verifying they exist first or
-        // just using simple HTML.
-        // I will assume I can just send simple HTML or reuse a generic structure if a
-        // template doesn't exist.
-        // User request: "Selects HTML templates based on event type".
-        // I should probably check if `request_assigned.html` is expected or I should
-        // create it?
-        // The prompt says "Selects HTML templates based on event type".
-        // Use placeholder or simple HTML if file not found?
-        // I'll try to load "request_assigned.html" etc. If it returns empty, I'll log
-        // error or fallback.
-        // But for this task, I will attempt to load specific templates.
-
-        // However, I don't recall seeing these templates in the file list. The user
-        // didn't ask me to create them explicitly but it is implied by "Selects HTML
-        // templates".
-        // I'll attempt to use basic string replacement on a simple string if template
-        // loading fails, OR I will just implement the logic to try loading.
-        // Given "Selects HTML templates" is a requirement, I should probably implement
-        // the logic assuming they exist or should exist.
-        // I will use simple inline HTML fallbacks if loadTemplate returns empty so the
-        // mail still sends during dev.
-
         String requestId = String.valueOf(metadata.get("requestId"));
-        String link = frontendUrl + "/requests/" + requestId;
 
-        String subject = "New Request Assignment";
-        String body = "<h1>New Assignment</h1><p>You have been assigned to request #" + requestId + "</p><a href='"
-                + link + "'>View Request</a>";
-
-        // In a real app I would create the template files. For this scope I will
-        // prioritize the listener logic.
-        // or I can create the templates? "Changes needed: ... Create
-        // NotificationEventListener ... Selects HTML templates"
-        // It doesn't explicitly say "Create template files".
-        // I'll try to load, if empty, use fallback.
-
-        String template = mailService.loadTemplate("request_assigned.html");
-        if (!template.isEmpty()) {
-            body = template.replace("{{assigneeName}}", assigneeName)
-                    .replace("{{requestId}}", requestId)
-                    .replace("{{link}}", link);
-        }
+        String body = mailTemplateService.render("request_assigned", Map.of(
+                "assigneeName", Objects.toString(metadata.get("assigneeName"), ""),
+                "requestId", requestId,
+                "link", frontendUrl + "/requests/" + requestId));
 
-        mailService.sendHtmlMail(event.getRecipientEmail(), subject, body);
+        mailService.sendHtmlMail(event.getRecipientEmail(), "New Request Assignment", body);
     }
 
-    private void handleRequestApproved(NotificationEvent event) {
-        Map<String, Object> metadata = event.getMetadata();
-        String requestId = String.valueOf(metadata.get("requestId"));
-        String link = frontendUrl + "/requests/" + requestId; // Assuming view link
-
-        String subject = "Request Approved";
-        String body = "<h1>Request Approved</h1><p>Your request #" + requestId + " has been approved.</p><a href='"
-                + link + "'>View Request</a>";
+    // Runs on the outbox relay thread: it only queues mail rows, and the relay
+    // keeps the outbox row until this returns
+    @EventListener
+    public void handleAssignmentsCreated(AssignmentsCreatedEvent event) {
+        logger.info("Received assignments event for request {} ({} assignees)", event.getRequestId(),
+                event.getAssignees().size());
+        // Tenants with a digest window get these batched per assignee
+        if (mailDigestService.coalesceAssignments(event)) {
+            return;
+        }
 
-        String template = mailService.loadTemplate("request_approved.html");
-        if (!template.isEmpty()) {
-            body = template.replace("{{requestId}}", requestId)
-                    .replace("{{link}}", link);
+        String requestId = String.valueOf(event.getRequestId());
+        String link = frontendUrl + "/requests/" + requestId;
+        MailTemplate template = mailTemplateService.getTemplate("request_assigned");
+
+        // One render buffer for the whole fan-out
+        StringBuilder buffer = new StringBuilder();
+        Map<String, String> bodies = new java.util.LinkedHashMap<>();
+        for (AssignmentsCreatedEvent.Assignee assignee : event.getAssignees()) {
+            buffer.setLength(0);
+            template.renderTo(buffer, Map.of(
+                    "assigneeName", Objects.toString(assignee.username(), ""),
+                    "requestId", requestId,
+                    "link", link));
+            bodies.put(assignee.email(), buffer.toString());
         }
+        // Queued in one batch; the dispatcher sends them over shared connections
+        mailService.sendHtmlMails("New Request Assignment", bodies);
+    }
 
-        mailService.sendHtmlMail(event.getRecipientEmail(), subject, body);
+    private void handleRequestApproved(NotificationEvent event) {
+        sendRequestOutcome(event, "request_approved", "Request Approved");
     }
 
     private void handleRequestRejected(NotificationEvent event) {
-        Map<String, Object> metadata = event.getMetadata();
-        String requestId = String.valueOf(metadata.get("requestId"));
-        String link = frontendUrl + "/requests/" + requestId;
-
-        String subject = "Request Rejected";
-        String body = "<h1>Request Rejected</h1><p>Your request #" + requestId + " has been rejected.</p><a href='"
-                + link + "'>View Request</a>";
+        sendRequestOutcome(event, "request_rejected", "Request Rejected");
+    }
 
-        String template = mailService.loadTemplate("request_rejected.html");
-        if (!template.isEmpty()) {
-            body = template.replace("{{requestId}}", requestId)
-                    .replace("{{link}}", link);
-        }
+    private void sendRequestOutcome(NotificationEvent event, String templateName, String subject) {
+        String requestId = String.valueOf(event.getMetadata().get("requestId"));
+        String body = mailTemplateService.render(templateName, Map.of(
+                "requestId", requestId,
+                "link", frontendUrl + "/requests/" + requestId));
 
         mailService.sendHtmlMail(event.getRecipientEmail(), subject, body);
     }
@@ -0,0 +1,59 @@
+package com.example.workflow_management_system.event;
+
+import com.example.workflow_management_system.model.RequestStatus;
+import com.example.workflow_management_system.model.UserRole;
+
+/**
+ * A request moved to another step or finished. Written to the outbox by the
+ * transition and relayed after commit, so subscribers only hear about
+ * transitions that happened.
+ */
+public class RequestUpdatedEvent {
+
+    private final Long requestId;
+    private final Long tenantId;
+    private final Long ownerId;
+    private final RequestStatus status;
+    private final String currentStep;
+    // Role that has to decide the current step, null once the request is closed
+    private final UserRole approverRole;
+
+    @com.fasterxml.jackson.annotation.JsonCreator
+    public RequestUpdatedEvent(@com.fasterxml.jackson.annotation.JsonProperty("requestId") Long requestId,
+            @com.fasterxml.jackson.annotation.JsonProperty("tenantId") Long tenantId,
+            @com.fasterxml.jackson.annotation.JsonProperty("ownerId") Long ownerId,
+            @com.fasterxml.jackson.annotation.JsonProperty("status") RequestStatus status,
+            @com.fasterxml.jackson.annotation.JsonProperty("currentStep") String currentStep,
+            @com.fasterxml.jackson.annotation.JsonProperty("approverRole") UserRole approverRole) {
+        this.requestId = requestId;
+        this.tenantId = tenantId;
+        this.ownerId = ownerId;
+        this.status = status;
+        this.currentStep = currentStep;
+        this.approverRole = approverRole;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public RequestStatus getStatus() {
+        return status;
+    }
+
+    public String getCurrentStep() {
+        return currentStep;
+    }
+
+    public UserRole getApproverRole() {
+        return approverRole;
+    }
+}
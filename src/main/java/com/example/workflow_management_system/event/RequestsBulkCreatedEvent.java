@@ -0,0 +1,51 @@
+package com.example.workflow_management_system.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published once per workflow group of a bulk intake batch instead of one
+ * {@link AssignmentsCreatedEvent} per request. Carries the request ids only;
+ * listeners that need the assignments load them by request.
+ */
+public class RequestsBulkCreatedEvent {
+
+    private final Long workflowId;
+    private final Long tenantId;
+    private final String stepName;
+    private final LocalDateTime dueAt;
+    private final List<Long> requestIds;
+
+    @com.fasterxml.jackson.annotation.JsonCreator
+    public RequestsBulkCreatedEvent(@com.fasterxml.jackson.annotation.JsonProperty("workflowId") Long workflowId,
+            @com.fasterxml.jackson.annotation.JsonProperty("tenantId") Long tenantId,
+            @com.fasterxml.jackson.annotation.JsonProperty("stepName") String stepName,
+            @com.fasterxml.jackson.annotation.JsonProperty("dueAt") LocalDateTime dueAt,
+            @com.fasterxml.jackson.annotation.JsonProperty("requestIds") List<Long> requestIds) {
+        this.workflowId = workflowId;
+        this.tenantId = tenantId;
+        this.stepName = stepName;
+        this.dueAt = dueAt;
+        this.requestIds = requestIds;
+    }
+
+    public Long getWorkflowId() {
+        return workflowId;
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public String getStepName() {
+        return stepName;
+    }
+
+    public LocalDateTime getDueAt() {
+        return dueAt;
+    }
+
+    public List<Long> getRequestIds() {
+        return requestIds;
+    }
+}
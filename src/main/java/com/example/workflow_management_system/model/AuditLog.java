@@ -16,7 +16,7 @@ import java.time.LocalDateTime;
 public class AuditLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeSortableId
     private Long id;
 
     @Column(name = "entity_type", nullable = false)
@@ -0,0 +1,8 @@
+package com.example.workflow_management_system.model;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 public class IdempotencyKey {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeSortableId
     private Long id;
 
     @Column(name = "key_value", nullable = false)
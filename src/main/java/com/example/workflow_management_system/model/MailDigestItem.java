@@ -0,0 +1,136 @@
+package com.example.workflow_management_system.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One notification waiting to go out in a digest email. Items of the same
+ * recipient and type are sent together once the oldest one's window has
+ * closed (flush_at) or enough of them have piled up.
+ */
+@Entity
+@Table(name = "mail_digest_items", indexes = {
+        @Index(name = "idx_mail_digest_recipient_type", columnList = "recipient, type")
+})
+public class MailDigestItem {
+
+    @Id
+    @TimeSortableId
+    private Long id;
+
+    @Column(nullable = false, length = 320)
+    private String recipient;
+
+    @Column(name = "recipient_name")
+    private String recipientName;
+
+    @Column(nullable = false, length = 64)
+    private String type;
+
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Column(name = "request_id")
+    private Long requestId;
+
+    @Column(name = "step_name")
+    private String stepName;
+
+    @Column(name = "flush_at", nullable = false)
+    private LocalDateTime flushAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public MailDigestItem() {
+    }
+
+    public MailDigestItem(String recipient, String recipientName, String type, Long tenantId, Long requestId,
+            String stepName, LocalDateTime flushAt) {
+        this.recipient = recipient;
+        this.recipientName = recipientName;
+        this.type = type;
+        this.tenantId = tenantId;
+        this.requestId = requestId;
+        this.stepName = stepName;
+        this.flushAt = flushAt;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getRecipientName() {
+        return recipientName;
+    }
+
+    public void setRecipientName(String recipientName) {
+        this.recipientName = recipientName;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Long tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(Long requestId) {
+        this.requestId = requestId;
+    }
+
+    public String getStepName() {
+        return stepName;
+    }
+
+    public void setStepName(String stepName) {
+        this.stepName = stepName;
+    }
+
+    public LocalDateTime getFlushAt() {
+        return flushAt;
+    }
+
+    public void setFlushAt(LocalDateTime flushAt) {
+        this.flushAt = flushAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.workflow_management_system.model;
+
+public enum MailStatus {
+    PENDING,
+    FAILED
+}
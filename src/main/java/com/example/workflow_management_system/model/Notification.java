@@ -4,11 +4,18 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // Inbox pages: one range scan down a user's ids (ids are time-sortable)
+        @Index(name = "idx_notifications_user_id", columnList = "user_id, id"),
+        // Unread counts and bulk mark-read
+        @Index(name = "idx_notifications_user_read_created", columnList = "user_id, is_read, created_at"),
+        // Retention of read notifications across all users
+        @Index(name = "idx_notifications_read_created", columnList = "is_read, created_at")
+})
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeSortableId
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
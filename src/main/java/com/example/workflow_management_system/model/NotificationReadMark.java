@@ -0,0 +1,101 @@
+package com.example.workflow_management_system.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Per-user watermarks over the role broadcasts, so "read everything up to
+ * here" and "clear read notifications up to here" are one row update however
+ * many broadcasts they cover. Each watermark comes as an id and a creation
+ * time: the id form is exact for a given notification, the time form also
+ * covers rows whose ids predate time-sortable ids. A broadcast is covered
+ * when either one reaches it.
+ */
+@Entity
+@Table(name = "notification_read_marks")
+public class NotificationReadMark {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Broadcasts with an id up to this one are read
+    @Column(name = "read_up_to_id", nullable = false)
+    private long readUpToId;
+
+    // Read broadcasts with an id up to this one are hidden
+    @Column(name = "hidden_up_to_id", nullable = false)
+    private long hiddenUpToId;
+
+    // Broadcasts created up to this time are read; null when never set
+    @Column(name = "read_up_to_at")
+    private LocalDateTime readUpToAt;
+
+    // Read broadcasts created up to this time are hidden; null when never set
+    @Column(name = "hidden_up_to_at")
+    private LocalDateTime hiddenUpToAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public NotificationReadMark() {
+    }
+
+    public NotificationReadMark(Long userId) {
+        this.userId = userId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getReadUpToId() {
+        return readUpToId;
+    }
+
+    public void setReadUpToId(long readUpToId) {
+        this.readUpToId = readUpToId;
+    }
+
+    public long getHiddenUpToId() {
+        return hiddenUpToId;
+    }
+
+    public void setHiddenUpToId(long hiddenUpToId) {
+        this.hiddenUpToId = hiddenUpToId;
+    }
+
+    public LocalDateTime getReadUpToAt() {
+        return readUpToAt;
+    }
+
+    public void setReadUpToAt(LocalDateTime readUpToAt) {
+        this.readUpToAt = readUpToAt;
+    }
+
+    public LocalDateTime getHiddenUpToAt() {
+        return hiddenUpToAt;
+    }
+
+    public void setHiddenUpToAt(LocalDateTime hiddenUpToAt) {
+        this.hiddenUpToAt = hiddenUpToAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
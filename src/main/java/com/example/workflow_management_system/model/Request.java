@@ -17,7 +17,7 @@ import java.time.LocalDateTime;
 public class Request {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeSortableId
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
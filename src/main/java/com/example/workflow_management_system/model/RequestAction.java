@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 public class RequestAction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeSortableId
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
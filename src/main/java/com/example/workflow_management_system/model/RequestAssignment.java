@@ -11,13 +11,15 @@ import java.time.LocalDateTime;
         @Index(name = "idx_req_assign_tenant_status", columnList = "tenant_id, status"),
         @Index(name = "idx_req_assign_assigned_to", columnList = "assigned_to"),
         @Index(name = "idx_req_assign_status", columnList = "status"),
-        @Index(name = "idx_req_assign_due_at", columnList = "due_at")
+        @Index(name = "idx_req_assign_due_at", columnList = "due_at"),
+        @Index(name = "idx_req_assign_request_user_status", columnList = "request_id, assigned_to, status"),
+        @Index(name = "idx_req_assign_tenant_status_due", columnList = "tenant_id, status, due_at")
 })
 @org.hibernate.annotations.Filter(name = "tenantFilter", condition = "tenant_id = :tenantId")
 public class RequestAssignment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeSortableId
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,114 @@
+package com.example.workflow_management_system.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Notification addressed to every user holding a role in a tenant. Stored
+ * once and merged into each member's notification list at read time; whether
+ * a member has read it is tracked by {@link RoleNotificationRead}.
+ */
+@Entity
+@Table(name = "role_notifications", indexes = {
+        @Index(name = "idx_role_notif_tenant_role_created", columnList = "tenant_id, role, created_at"),
+        // Retention across all tenants
+        @Index(name = "idx_role_notif_created", columnList = "created_at")
+})
+public class RoleNotification {
+
+    @Id
+    @TimeSortableId
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private UserRole role;
+
+    @Column(nullable = false)
+    private String message;
+
+    @Column(nullable = false)
+    private String type; // INFO, ACTION, SUCCESS, ERROR
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "request_id")
+    private Request request;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public RoleNotification() {
+    }
+
+    public RoleNotification(Long tenantId, UserRole role, String message, String type, Request request) {
+        this.tenantId = tenantId;
+        this.role = role;
+        this.message = message;
+        this.type = type;
+        this.request = request;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Long tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public void setRole(UserRole role) {
+        this.role = role;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Request getRequest() {
+        return request;
+    }
+
+    public void setRequest(Request request) {
+        this.request = request;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.workflow_management_system.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marks a {@link RoleNotification} as read by one user. Only written when a
+ * user reads a broadcast, so unread broadcasts cost no per-user rows.
+ */
+@Entity
+@Table(name = "role_notification_reads", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_role_notif_read_user_notif", columnNames = { "user_id", "role_notification_id" })
+}, indexes = {
+        // Retention removes the markers of purged broadcasts
+        @Index(name = "idx_role_notif_read_notif", columnList = "role_notification_id")
+})
+public class RoleNotificationRead {
+
+    @Id
+    @TimeSortableId
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "role_notification_id", nullable = false)
+    private Long roleNotificationId;
+
+    @Column(name = "read_at", nullable = false)
+    private LocalDateTime readAt;
+
+    public RoleNotificationRead() {
+    }
+
+    public RoleNotificationRead(Long userId, Long roleNotificationId, LocalDateTime readAt) {
+        this.userId = userId;
+        this.roleNotificationId = roleNotificationId;
+        this.readAt = readAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getRoleNotificationId() {
+        return roleNotificationId;
+    }
+
+    public void setRoleNotificationId(Long roleNotificationId) {
+        this.roleNotificationId = roleNotificationId;
+    }
+
+    public LocalDateTime getReadAt() {
+        return readAt;
+    }
+
+    public void setReadAt(LocalDateTime readAt) {
+        this.readAt = readAt;
+    }
+}
@@ -19,6 +19,11 @@ public class Tenant {
     @Column(nullable = false)
     private TenantStatus status;
 
+    // Window for coalescing assignment emails into digests; 0 sends them one
+    // by one, null falls back to app.mail.digest.default-minutes
+    @Column(name = "mail_digest_minutes")
+    private Integer mailDigestMinutes;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -64,4 +69,12 @@ public class Tenant {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public Integer getMailDigestMinutes() {
+        return mailDigestMinutes;
+    }
+
+    public void setMailDigestMinutes(Integer mailDigestMinutes) {
+        this.mailDigestMinutes = mailDigestMinutes;
+    }
 }
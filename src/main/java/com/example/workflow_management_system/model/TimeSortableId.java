@@ -0,0 +1,19 @@
+package com.example.workflow_management_system.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns the id from {@link com.example.workflow_management_system.util.TimeSortableIds}
+ * before the insert, which lets Hibernate batch inserts of high-volume
+ * entities (IDENTITY disables insert batching).
+ */
+@IdGeneratorType(TimeSortableIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface TimeSortableId {
+}
@@ -0,0 +1,26 @@
+package com.example.workflow_management_system.model;
+
+import com.example.workflow_management_system.util.TimeSortableIds;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+public class TimeSortableIdGenerator implements BeforeExecutionGenerator {
+
+    public TimeSortableIdGenerator(TimeSortableId config) {
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        return TimeSortableIds.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
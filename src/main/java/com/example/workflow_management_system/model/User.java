@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users", indexes = {
-        @Index(name = "idx_user_tenant", columnList = "tenant_id")
+        @Index(name = "idx_user_tenant", columnList = "tenant_id"),
+        @Index(name = "idx_user_tenant_role_active", columnList = "tenant_id, role, active, deleted")
 })
 @org.hibernate.annotations.FilterDef(name = "tenantFilter", parameters = @org.hibernate.annotations.ParamDef(name = "tenantId", type = Long.class))
 @org.hibernate.annotations.Filter(name = "tenantFilter", condition = "tenant_id = :tenantId")
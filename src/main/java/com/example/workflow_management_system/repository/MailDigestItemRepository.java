@@ -0,0 +1,28 @@
+package com.example.workflow_management_system.repository;
+
+import com.example.workflow_management_system.model.MailDigestItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MailDigestItemRepository extends JpaRepository<MailDigestItem, Long> {
+
+    // [recipient, type] of every digest whose window has closed or that is full
+    @Query("SELECT d.recipient, d.type FROM MailDigestItem d GROUP BY d.recipient, d.type "
+            + "HAVING MIN(d.flushAt) <= :now OR COUNT(d) >= :maxItems")
+    List<Object[]> findDueDigests(@Param("now") LocalDateTime now, @Param("maxItems") long maxItems);
+
+    List<MailDigestItem> findByRecipientAndTypeOrderByIdAsc(String recipient, String type, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM MailDigestItem d WHERE d.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,9 @@
+package com.example.workflow_management_system.repository;
+
+import com.example.workflow_management_system.model.NotificationReadMark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationReadMarkRepository extends JpaRepository<NotificationReadMark, Long> {
+}
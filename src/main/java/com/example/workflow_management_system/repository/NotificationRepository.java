@@ -1,17 +1,68 @@
 package com.example.workflow_management_system.repository;
 
+import com.example.workflow_management_system.dto.NotificationResponse;
 import com.example.workflow_management_system.model.Notification;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
 
-    List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+    // Inbox page older than the cursor, projected so user and request are never loaded
+    @Query("SELECT new com.example.workflow_management_system.dto.NotificationResponse("
+            + "n.id, n.message, n.type, n.request.id, n.isRead, n.createdAt) "
+            + "FROM Notification n WHERE n.user.id = :userId AND n.id < :before ORDER BY n.id DESC")
+    List<NotificationResponse> findInboxPage(@Param("userId") Long userId, @Param("before") long before,
+            Pageable pageable);
 
     long countByUserIdAndIsReadFalse(Long userId);
+
+    // Up to a given notification; rows from before time-sortable ids have
+    // small ids, so a point in time goes through created_at instead
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false "
+            + "AND n.id <= :upToId")
+    int markReadUpTo(@Param("userId") Long userId, @Param("upToId") long upToId);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.user.id = :userId AND n.isRead = true AND n.id <= :upToId")
+    int deleteReadUpTo(@Param("userId") Long userId, @Param("upToId") long upToId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false "
+            + "AND n.createdAt <= :upTo")
+    int markReadCreatedUpTo(@Param("userId") Long userId, @Param("upTo") LocalDateTime upTo);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.user.id = :userId AND n.isRead = true AND n.createdAt <= :upTo")
+    int deleteReadCreatedUpTo(@Param("userId") Long userId, @Param("upTo") LocalDateTime upTo);
+
+    // Retention: oldest first by created_at, which holds for ids from before
+    // time-sortable ids too; walks idx_notifications_read_created
+    @Query("SELECT n.id FROM Notification n WHERE n.isRead = true AND n.createdAt < :cutoff ORDER BY n.createdAt")
+    List<Long> findReadIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query("SELECT n.user.id FROM Notification n WHERE n.isRead = false GROUP BY n.user.id HAVING COUNT(n) > :cap")
+    List<Long> findUserIdsWithUnreadOver(@Param("cap") long cap);
+
+    @Query("SELECT n.id FROM Notification n WHERE n.user.id = :userId AND n.isRead = false ORDER BY n.id DESC")
+    List<Long> findUnreadIdsNewestFirst(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT n.id FROM Notification n WHERE n.user.id = :userId AND n.isRead = false AND n.id <= :upToId "
+            + "ORDER BY n.id")
+    List<Long> findUnreadIdsUpTo(@Param("userId") Long userId, @Param("upToId") long upToId, Pageable pageable);
+
+    // Re-checks the read flag so the count is exact if a row changed since it was selected
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids AND n.isRead = :read")
+    int deleteByIdsAndRead(@Param("ids") Collection<Long> ids, @Param("read") boolean read);
 }
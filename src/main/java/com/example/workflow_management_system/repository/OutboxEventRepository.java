@@ -0,0 +1,33 @@
+package com.example.workflow_management_system.repository;
+
+import com.example.workflow_management_system.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Ids are time-sortable, so primary key order is commit-ish order
+    @Query("SELECT o FROM OutboxEvent o WHERE o.attempts < :maxAttempts "
+            + "AND (o.nextAttemptAt IS NULL OR o.nextAttemptAt <= :now) ORDER BY o.id")
+    List<OutboxEvent> findDue(@Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.attempts = :attempts, o.nextAttemptAt = :nextAttemptAt, "
+            + "o.lastError = :lastError WHERE o.id = :id")
+    int markFailed(@Param("id") Long id, @Param("attempts") int attempts,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent o WHERE o.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,33 @@
+package com.example.workflow_management_system.repository;
+
+import com.example.workflow_management_system.model.MailStatus;
+import com.example.workflow_management_system.model.QueuedMail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface QueuedMailRepository extends JpaRepository<QueuedMail, Long> {
+
+    // Domains with due mail, the one waiting longest first
+    @Query("SELECT m.recipientDomain FROM QueuedMail m WHERE m.status = :status AND m.nextAttemptAt <= :now "
+            + "GROUP BY m.recipientDomain ORDER BY MIN(m.nextAttemptAt)")
+    List<String> findDueDomains(@Param("status") MailStatus status, @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    @Query("SELECT m FROM QueuedMail m WHERE m.status = :status AND m.recipientDomain = :domain "
+            + "AND m.nextAttemptAt <= :now ORDER BY m.id")
+    List<QueuedMail> findDueForDomain(@Param("status") MailStatus status, @Param("domain") String domain,
+            @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM QueuedMail m WHERE m.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -26,4 +26,83 @@ public interface RequestAssignmentRepository extends JpaRepository<RequestAssign
                         "request.currentStep" })
         org.springframework.data.domain.Page<RequestAssignment> findByAssignedTo_IdAndTenantIdOrderByAssignedAtDesc(
                         Long userId, Long tenantId, org.springframework.data.domain.Pageable pageable);
+
+        // Conditional completion keyed on request, user and status, served by
+        // idx_req_assign_request_user_status. Returns the number of rows moved.
+        @org.springframework.data.jpa.repository.Modifying
+        @org.springframework.data.jpa.repository.Query("UPDATE RequestAssignment a SET a.status = :newStatus, "
+                        + "a.updatedAt = :now, a.version = a.version + 1 "
+                        + "WHERE a.request.id = :requestId AND a.assignedTo.id = :userId "
+                        + "AND a.tenantId = :tenantId AND a.status IN :openStatuses")
+        int updateStatusForUser(@org.springframework.data.repository.query.Param("requestId") Long requestId,
+                        @org.springframework.data.repository.query.Param("userId") Long userId,
+                        @org.springframework.data.repository.query.Param("tenantId") Long tenantId,
+                        @org.springframework.data.repository.query.Param("openStatuses") java.util.Collection<AssignmentStatus> openStatuses,
+                        @org.springframework.data.repository.query.Param("newStatus") AssignmentStatus newStatus,
+                        @org.springframework.data.repository.query.Param("now") java.time.LocalDateTime now);
+
+        @org.springframework.data.jpa.repository.Modifying
+        @org.springframework.data.jpa.repository.Query("UPDATE RequestAssignment a SET a.status = :newStatus, "
+                        + "a.updatedAt = :now, a.version = a.version + 1 "
+                        + "WHERE a.request.id = :requestId AND a.tenantId = :tenantId AND a.status IN :openStatuses")
+        int updateStatusForRequest(@org.springframework.data.repository.query.Param("requestId") Long requestId,
+                        @org.springframework.data.repository.query.Param("tenantId") Long tenantId,
+                        @org.springframework.data.repository.query.Param("openStatuses") java.util.Collection<AssignmentStatus> openStatuses,
+                        @org.springframework.data.repository.query.Param("newStatus") AssignmentStatus newStatus,
+                        @org.springframework.data.repository.query.Param("now") java.time.LocalDateTime now);
+
+        // Overdue sweep, served by idx_req_assign_tenant_status_due
+        @org.springframework.data.jpa.repository.Query("SELECT DISTINCT a.tenantId FROM RequestAssignment a "
+                        + "WHERE a.status = :status AND a.dueAt < :dueBefore")
+        List<Long> findTenantIdsByStatusAndDueAtBefore(
+                        @org.springframework.data.repository.query.Param("status") AssignmentStatus status,
+                        @org.springframework.data.repository.query.Param("dueBefore") java.time.LocalDateTime dueBefore);
+
+        @org.springframework.data.jpa.repository.Query("SELECT MIN(a.dueAt) FROM RequestAssignment a "
+                        + "WHERE a.status = :status AND a.dueAt < :dueBefore")
+        java.time.LocalDateTime findOldestDueAt(
+                        @org.springframework.data.repository.query.Param("status") AssignmentStatus status,
+                        @org.springframework.data.repository.query.Param("dueBefore") java.time.LocalDateTime dueBefore);
+
+        @org.springframework.data.jpa.repository.Query("SELECT a.id FROM RequestAssignment a WHERE a.tenantId = :tenantId "
+                        + "AND a.status = :status AND a.dueAt < :dueBefore ORDER BY a.dueAt")
+        List<Long> findIdsByTenantIdAndStatusAndDueAtBefore(
+                        @org.springframework.data.repository.query.Param("tenantId") Long tenantId,
+                        @org.springframework.data.repository.query.Param("status") AssignmentStatus status,
+                        @org.springframework.data.repository.query.Param("dueBefore") java.time.LocalDateTime dueBefore,
+                        org.springframework.data.domain.Pageable pageable);
+
+        @org.springframework.data.jpa.repository.Modifying
+        @org.springframework.data.jpa.repository.Query("UPDATE RequestAssignment a SET a.status = :newStatus, "
+                        + "a.updatedAt = :now, a.version = a.version + 1 "
+                        + "WHERE a.id IN :ids AND a.status = :currentStatus")
+        int updateStatusForIds(@org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids,
+                        @org.springframework.data.repository.query.Param("currentStatus") AssignmentStatus currentStatus,
+                        @org.springframework.data.repository.query.Param("newStatus") AssignmentStatus newStatus,
+                        @org.springframework.data.repository.query.Param("now") java.time.LocalDateTime now);
+
+        interface DueTimerView {
+                Long getId();
+
+                Long getRequestId();
+
+                Long getTenantId();
+
+                java.time.LocalDateTime getDueAt();
+        }
+
+        @org.springframework.data.jpa.repository.Query("SELECT a.id AS id, a.request.id AS requestId, "
+                        + "a.tenantId AS tenantId, a.dueAt AS dueAt FROM RequestAssignment a "
+                        + "WHERE a.status = :status AND a.dueAt >= :from AND a.dueAt < :to")
+        List<DueTimerView> findDueTimers(
+                        @org.springframework.data.repository.query.Param("status") AssignmentStatus status,
+                        @org.springframework.data.repository.query.Param("from") java.time.LocalDateTime from,
+                        @org.springframework.data.repository.query.Param("to") java.time.LocalDateTime to);
+
+        @org.springframework.data.jpa.repository.Query("SELECT a.id AS id, a.request.id AS requestId, "
+                        + "a.tenantId AS tenantId, a.dueAt AS dueAt FROM RequestAssignment a "
+                        + "WHERE a.status = :status AND a.request.id IN :requestIds AND a.dueAt IS NOT NULL")
+        List<DueTimerView> findDueTimersByRequestIds(
+                        @org.springframework.data.repository.query.Param("status") AssignmentStatus status,
+                        @org.springframework.data.repository.query.Param("requestIds") java.util.Collection<Long> requestIds);
 }
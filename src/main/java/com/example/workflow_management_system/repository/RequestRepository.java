@@ -14,6 +14,8 @@ public interface RequestRepository extends JpaRepository<Request, Long>,
 
         Optional<Request> findByIdAndTenantId(Long id, Long tenantId);
 
+        List<Request> findByIdInAndTenantId(java.util.Collection<Long> ids, Long tenantId);
+
         List<Request> findByTenantIdAndCreatedBy_Id(Long tenantId, Long userId);
 
         List<Request> findByTenantIdAndStatusAndCurrentStep_RequiredRole(Long tenantId,
@@ -0,0 +1,25 @@
+package com.example.workflow_management_system.repository;
+
+import com.example.workflow_management_system.model.RoleNotificationRead;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RoleNotificationReadRepository extends JpaRepository<RoleNotificationRead, Long> {
+
+    @Query("SELECT r.roleNotificationId FROM RoleNotificationRead r "
+            + "WHERE r.userId = :userId AND r.roleNotificationId IN :ids")
+    List<Long> findReadIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    boolean existsByUserIdAndRoleNotificationId(Long userId, Long roleNotificationId);
+
+    @Modifying
+    @Query("DELETE FROM RoleNotificationRead r WHERE r.roleNotificationId IN :ids")
+    int deleteByRoleNotificationIds(@Param("ids") Collection<Long> ids);
+}
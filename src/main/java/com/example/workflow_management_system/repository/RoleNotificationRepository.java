@@ -0,0 +1,52 @@
+package com.example.workflow_management_system.repository;
+
+import com.example.workflow_management_system.model.RoleNotification;
+import com.example.workflow_management_system.model.UserRole;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RoleNotificationRepository extends JpaRepository<RoleNotification, Long> {
+
+    // A user's broadcasts older than the cursor, newest first, minus the read
+    // ones below either of the user's hidden watermarks
+    @Query("SELECT n FROM RoleNotification n WHERE n.tenantId = :tenantId AND n.role = :role "
+            + "AND n.createdAt >= :since AND n.id < :before AND ((n.id > :hiddenUpTo AND n.createdAt > :hiddenUpToAt) "
+            + "OR (n.id > :readUpTo AND n.createdAt > :readUpToAt AND NOT EXISTS (SELECT r.id FROM "
+            + "RoleNotificationRead r WHERE r.roleNotificationId = n.id AND r.userId = :userId))) ORDER BY n.id DESC")
+    List<RoleNotification> findVisible(@Param("tenantId") Long tenantId, @Param("role") UserRole role,
+            @Param("since") LocalDateTime since, @Param("userId") Long userId, @Param("before") long before,
+            @Param("readUpTo") long readUpTo, @Param("readUpToAt") LocalDateTime readUpToAt,
+            @Param("hiddenUpTo") long hiddenUpTo, @Param("hiddenUpToAt") LocalDateTime hiddenUpToAt,
+            Pageable pageable);
+
+    Optional<RoleNotification> findByIdAndTenantIdAndRole(Long id, Long tenantId, UserRole role);
+
+    // Broadcasts of the role since the user joined, above both read
+    // watermarks and within both bounds, that the user has no read marker for
+    @Query("SELECT COUNT(n) FROM RoleNotification n WHERE n.tenantId = :tenantId AND n.role = :role "
+            + "AND n.createdAt >= :since AND n.id > :readUpTo AND n.createdAt > :readUpToAt "
+            + "AND n.id <= :upToId AND n.createdAt <= :upToAt AND NOT EXISTS "
+            + "(SELECT r.id FROM RoleNotificationRead r WHERE r.roleNotificationId = n.id AND r.userId = :userId)")
+    long countUnread(@Param("tenantId") Long tenantId, @Param("role") UserRole role,
+            @Param("since") LocalDateTime since, @Param("userId") Long userId, @Param("readUpTo") long readUpTo,
+            @Param("readUpToAt") LocalDateTime readUpToAt, @Param("upToId") long upToId,
+            @Param("upToAt") LocalDateTime upToAt);
+
+    // Retention: oldest first by created_at, walks idx_role_notif_created
+    @Query("SELECT n.id FROM RoleNotification n WHERE n.createdAt < :cutoff ORDER BY n.createdAt")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM RoleNotification n WHERE n.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -50,4 +50,8 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
         @org.springframework.data.jpa.repository.Query("SELECT u FROM User u WHERE u.tenant.id = :tenantId AND u.role = :role")
         List<User> findByTenantIdAndRole(@org.springframework.data.repository.query.Param("tenantId") Long tenantId,
                         @org.springframework.data.repository.query.Param("role") com.example.workflow_management_system.model.UserRole role);
+
+        // Approver fan-out, served by idx_user_tenant_role_active
+        List<User> findByTenant_IdAndRoleAndActiveTrueAndDeletedFalse(Long tenantId,
+                        com.example.workflow_management_system.model.UserRole role);
 }
@@ -0,0 +1,161 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.event.AssignmentsClosedEvent;
+import com.example.workflow_management_system.event.AssignmentsCreatedEvent;
+import com.example.workflow_management_system.event.RequestsBulkCreatedEvent;
+import com.example.workflow_management_system.model.AssignmentStatus;
+import com.example.workflow_management_system.repository.RequestAssignmentRepository;
+import com.example.workflow_management_system.util.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Fires ASSIGNED -> OVERDUE transitions within about a second of the due date
+ * from an in-memory {@link TimingWheel} (1s ticks, 64 slots, 4 levels, about
+ * 194 days before timers park). Timers are added when assignments are
+ * created and dropped when they are completed or cancelled, both after
+ * commit. The wheel only needs to be complete for the next horizon:
+ * {@link #loadUpcoming()} is called by the reconciliation job together with
+ * {@link OverdueAssignmentSweeper}, which catches anything the wheel missed.
+ *
+ * Every node keeps its own wheel. Firing uses the same conditional update as
+ * the sweeper, so two nodes firing the same timer is harmless.
+ */
+@Service
+public class AssignmentDueTimerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssignmentDueTimerService.class);
+
+    private static final int FIRE_CHUNK_SIZE = 500;
+
+    record AssignmentTimer(Long assignmentId, Long requestId, Long tenantId) {
+    }
+
+    private final RequestAssignmentRepository requestAssignmentRepository;
+    private final OverdueAssignmentSweeper overdueAssignmentSweeper;
+
+    private final TimingWheel<AssignmentTimer> wheel;
+    private final Map<Long, Set<AssignmentTimer>> timersByRequest = new ConcurrentHashMap<>();
+
+    private final Counter firedCounter;
+
+    @Value("${app.assignments.due-timer.horizon-minutes:30}")
+    private long horizonMinutes;
+
+    public AssignmentDueTimerService(RequestAssignmentRepository requestAssignmentRepository,
+            OverdueAssignmentSweeper overdueAssignmentSweeper,
+            MeterRegistry meterRegistry) {
+        this.requestAssignmentRepository = requestAssignmentRepository;
+        this.overdueAssignmentSweeper = overdueAssignmentSweeper;
+        this.wheel = new TimingWheel<>(1000L, 64, 4, System.currentTimeMillis());
+
+        this.firedCounter = meterRegistry.counter("assignments_due_timers_fired_total");
+        meterRegistry.gauge("assignments_due_timers_pending", wheel, TimingWheel::size);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssignmentsCreated(AssignmentsCreatedEvent event) {
+        if (event.getDueAt() == null) {
+            return;
+        }
+        for (AssignmentsCreatedEvent.Assignee assignee : event.getAssignees()) {
+            schedule(new AssignmentTimer(assignee.assignmentId(), event.getRequestId(), event.getTenantId()),
+                    event.getDueAt());
+        }
+    }
+
+    // Bulk intake only sends request ids; the assignments are looked up in chunks
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestsBulkCreated(RequestsBulkCreatedEvent event) {
+        List<Long> requestIds = event.getRequestIds();
+        for (int from = 0; from < requestIds.size(); from += FIRE_CHUNK_SIZE) {
+            List<Long> chunk = requestIds.subList(from, Math.min(from + FIRE_CHUNK_SIZE, requestIds.size()));
+            for (RequestAssignmentRepository.DueTimerView row : requestAssignmentRepository
+                    .findDueTimersByRequestIds(AssignmentStatus.ASSIGNED, chunk)) {
+                schedule(new AssignmentTimer(row.getId(), row.getRequestId(), row.getTenantId()), row.getDueAt());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAssignmentsClosed(AssignmentsClosedEvent event) {
+        Set<AssignmentTimer> timers = timersByRequest.remove(event.getRequestId());
+        if (timers != null) {
+            timers.forEach(wheel::cancel);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.assignments.due-timer.tick-millis:1000}")
+    public void tick() {
+        List<AssignmentTimer> expired = wheel.advance(System.currentTimeMillis());
+        if (expired.isEmpty()) {
+            return;
+        }
+        expired.forEach(this::forget);
+        firedCounter.increment(expired.size());
+
+        Map<Long, List<Long>> idsByTenant = expired.stream().collect(Collectors.groupingBy(
+                AssignmentTimer::tenantId, Collectors.mapping(AssignmentTimer::assignmentId, Collectors.toList())));
+        idsByTenant.forEach((tenantId, ids) -> {
+            for (int from = 0; from < ids.size(); from += FIRE_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + FIRE_CHUNK_SIZE, ids.size()));
+                try {
+                    overdueAssignmentSweeper.markOverdue(tenantId, new ArrayList<>(chunk));
+                } catch (RuntimeException e) {
+                    // Left for the reconciliation sweep
+                    logger.error("Failed to mark {} assignments overdue for tenant {}", chunk.size(), tenantId, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Schedules timers for every ASSIGNED assignment due within the horizon.
+     * Returns the number of timers that were not on the wheel yet.
+     */
+    public int loadUpcoming() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RequestAssignmentRepository.DueTimerView> rows = requestAssignmentRepository
+                .findDueTimers(AssignmentStatus.ASSIGNED, now, now.plusMinutes(horizonMinutes));
+
+        int added = 0;
+        for (RequestAssignmentRepository.DueTimerView row : rows) {
+            AssignmentTimer timer = new AssignmentTimer(row.getId(), row.getRequestId(), row.getTenantId());
+            if (!wheel.contains(timer)) {
+                schedule(timer, row.getDueAt());
+                added++;
+            }
+        }
+        if (added > 0) {
+            logger.info("Loaded {} assignment due timers", added);
+        }
+        return added;
+    }
+
+    private void schedule(AssignmentTimer timer, LocalDateTime dueAt) {
+        timersByRequest.computeIfAbsent(timer.requestId(), k -> ConcurrentHashMap.newKeySet()).add(timer);
+        wheel.schedule(timer, dueAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private void forget(AssignmentTimer timer) {
+        timersByRequest.computeIfPresent(timer.requestId(), (requestId, timers) -> {
+            timers.remove(timer);
+            return timers.isEmpty() ? null : timers;
+        });
+    }
+}
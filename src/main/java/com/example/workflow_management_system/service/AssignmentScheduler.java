@@ -6,14 +6,21 @@ import org.springframework.stereotype.Component;
 @Component
 public class AssignmentScheduler {
 
-    private final RequestAssignmentService requestAssignmentService;
+    private final OverdueAssignmentSweeper overdueAssignmentSweeper;
+    private final AssignmentDueTimerService assignmentDueTimerService;
 
-    public AssignmentScheduler(RequestAssignmentService requestAssignmentService) {
-        this.requestAssignmentService = requestAssignmentService;
+    public AssignmentScheduler(OverdueAssignmentSweeper overdueAssignmentSweeper,
+            AssignmentDueTimerService assignmentDueTimerService) {
+        this.overdueAssignmentSweeper = overdueAssignmentSweeper;
+        this.assignmentDueTimerService = assignmentDueTimerService;
     }
 
-    @Scheduled(fixedRate = 300000) // 5 minutes = 300,000 ms
+    // Reconciliation: due timers fire overdue transitions in near real time,
+    // this catches what they missed (restarts, bulk intake) and refills the
+    // wheel for the next horizon. Also runs once at startup.
+    @Scheduled(fixedRateString = "${app.assignments.reconcile-interval-ms:900000}") // 15 minutes
     public void checkOverdueAssignments() {
-        requestAssignmentService.markOverdueAssignments();
+        overdueAssignmentSweeper.sweep();
+        assignmentDueTimerService.loadUpcoming();
     }
 }
@@ -17,26 +17,46 @@ public class AuditLogService {
 
     private final AuditLogRepository auditLogRepository;
     private final org.springframework.context.ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
+    private final ExportService exportService;
+    private final jakarta.persistence.EntityManager entityManager;
+
+    @org.springframework.beans.factory.annotation.Value("${app.export.fetch-size:1000}")
+    private int exportFetchSize;
 
     public AuditLogService(AuditLogRepository auditLogRepository,
-            org.springframework.context.ApplicationEventPublisher eventPublisher) {
+            org.springframework.context.ApplicationEventPublisher eventPublisher,
+            OutboxService outboxService,
+            ExportService exportService,
+            jakarta.persistence.EntityManager entityManager) {
         this.auditLogRepository = auditLogRepository;
         this.eventPublisher = eventPublisher;
+        this.outboxService = outboxService;
+        this.exportService = exportService;
+        this.entityManager = entityManager;
     }
 
     public void logEvent(String entityType, String entityId, String action, Map<String, Object> details) {
-        Long tenantId = SecurityUtils.getCurrentTenantId();
-        String performedBy = "SYSTEM";
+        publishEvent(entityType, entityId, action, currentPerformedBy(), SecurityUtils.getCurrentTenantId(), details);
+    }
+
+    // Written to the outbox in the caller's transaction: the entry is only
+    // recorded if the transaction commits
+    public void logEventOnCommit(String entityType, String entityId, String action, Map<String, Object> details) {
+        outboxService.append(new com.example.workflow_management_system.event.AuditEvent(
+                entityType, entityId, action, currentPerformedBy(), SecurityUtils.getCurrentTenantId(), details));
+    }
+
+    private String currentPerformedBy() {
         try {
             Long userId = SecurityUtils.getCurrentUser().getId();
             if (userId != null) {
-                performedBy = String.valueOf(userId);
+                return String.valueOf(userId);
             }
         } catch (Exception e) {
             // Likely system action or no auth context
         }
-
-        publishEvent(entityType, entityId, action, performedBy, tenantId, details);
+        return "SYSTEM";
     }
 
     // Allow logging with explicit user ID (e.g. when context is not available or
@@ -67,17 +87,38 @@ public class AuditLogService {
         return auditLogRepository.findAll(spec, pageable);
     }
 
+    /**
+     * Writes the matching audit logs of the current tenant in the given
+     * format, read through a forward-only cursor. The entities are detached
+     * every {@code app.export.fetch-size} rows so the session stays small.
+     */
     @Transactional(readOnly = true)
-    public List<AuditLog> getAuditLogsForExport(
+    public void exportAuditLogs(
             String entityType, String entityId, String action,
-            java.time.LocalDateTime fromDate, java.time.LocalDateTime toDate) {
+            java.time.LocalDateTime fromDate, java.time.LocalDateTime toDate,
+            ExportService.ExportFormat format, java.io.OutputStream outputStream) throws java.io.IOException {
         Long tenantId = SecurityUtils.getCurrentTenantId();
 
         org.springframework.data.jpa.domain.Specification<AuditLog> spec = com.example.workflow_management_system.specification.AuditLogSpecification
                 .filterAuditLogs(
                         tenantId, entityType, entityId, action, fromDate, toDate);
 
-        return auditLogRepository.findAll(spec);
+        jakarta.persistence.criteria.CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        jakarta.persistence.criteria.CriteriaQuery<AuditLog> query = cb.createQuery(AuditLog.class);
+        jakarta.persistence.criteria.Root<AuditLog> root = query.from(AuditLog.class);
+        query.where(spec.toPredicate(root, query, cb));
+
+        long[] rowCount = { 0 };
+        try (java.util.stream.Stream<AuditLog> logs = entityManager.createQuery(query)
+                .setHint(org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            exportService.exportAuditLogs(logs.peek(log -> {
+                if (++rowCount[0] % exportFetchSize == 0) {
+                    entityManager.clear();
+                }
+            }), format, outputStream);
+        }
     }
 
     @Transactional(readOnly = true)
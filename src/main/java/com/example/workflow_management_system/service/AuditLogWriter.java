@@ -0,0 +1,305 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.event.AuditEvent;
+import com.example.workflow_management_system.event.EventJournal;
+import com.example.workflow_management_system.util.BoundedRingBuffer;
+import com.example.workflow_management_system.util.TimeSortableIds;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes audit events to {@code audit_logs} in batches. Producers offer
+ * events to a bounded lock-free ring buffer and return immediately; a single
+ * writer thread drains it and inserts a batch when it holds
+ * {@code app.audit.batch-size} events or the oldest pending event has waited
+ * {@code app.audit.flush-interval-ms}, whichever comes first. When the buffer
+ * is full producers wait up to {@code app.audit.enqueue-timeout-ms} for room,
+ * so a slow database slows callers down instead of losing events; an event
+ * that still does not fit stays in the journal, which delivers it again.
+ * A failed batch is retried with exponential backoff, then row by row so one
+ * bad event does not hold back the others. Pending events are flushed on
+ * shutdown, and each event's journal entry is acknowledged once its row is
+ * written. An event whose row cannot even be built (no id can be issued, no
+ * timestamp) is logged, counted as failed and left to the journal, and so is
+ * a batch that fails unexpectedly; the writer thread carries on either way.
+ */
+@Component
+public class AuditLogWriter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO audit_logs "
+            + "(id, entity_type, entity_id, action, performed_by, timestamp, tenant_id, details) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long MAX_RETRY_BACKOFF_MS = 5000L;
+
+    private record PendingAudit(AuditEvent event, long journalOffset) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final EventJournal eventJournal;
+    private final BoundedRingBuffer<PendingAudit> buffer;
+
+    private final Counter droppedCounter;
+    private final Counter deferredCounter;
+    private final Counter retriedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Counter flushErrorsCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer flushTimer;
+
+    @Value("${app.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${app.audit.enqueue-timeout-ms:500}")
+    private long enqueueTimeoutMs;
+
+    @Value("${app.audit.max-retries:5}")
+    private int maxRetries;
+
+    @Value("${app.audit.retry-backoff-ms:100}")
+    private long retryBackoffMs;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, EventJournal eventJournal,
+            MeterRegistry meterRegistry, @Value("${app.audit.buffer-capacity:65536}") int bufferCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventJournal = eventJournal;
+        this.buffer = new BoundedRingBuffer<>(bufferCapacity);
+
+        this.droppedCounter = meterRegistry.counter("audit_events_dropped_total");
+        this.deferredCounter = meterRegistry.counter("audit_events_deferred_total");
+        this.retriedCounter = meterRegistry.counter("audit_flush_retries_total");
+        this.writtenCounter = meterRegistry.counter("audit_events_written_total");
+        this.failedCounter = meterRegistry.counter("audit_events_failed_total");
+        this.flushErrorsCounter = meterRegistry.counter("audit_flush_errors_total");
+        this.batchSizeSummary = meterRegistry.summary("audit_flush_batch_size");
+        this.flushTimer = meterRegistry.timer("audit_flush_duration");
+        Gauge.builder("audit_buffer_depth", buffer, BoundedRingBuffer::size).register(meterRegistry);
+    }
+
+    /**
+     * Queues the event for the next batch, waiting for room while the buffer
+     * is full. {@code journalOffset} is the event's {@link EventJournal}
+     * entry, acknowledged once the row is written; an event that is not
+     * queued stays in the journal and is delivered again from there. Only an
+     * event that was not journaled is lost.
+     */
+    public boolean enqueue(AuditEvent event, long journalOffset) {
+        PendingAudit pending = new PendingAudit(event, journalOffset);
+        if (buffer.offer(pending)) {
+            return true;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(enqueueTimeoutMs);
+        while (System.nanoTime() < deadline && running) {
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+            if (buffer.offer(pending)) {
+                return true;
+            }
+        }
+        if (journalOffset != EventJournal.NOT_JOURNALED) {
+            deferredCounter.increment();
+            logger.debug("Audit buffer full, left {} {} to the journal", event.getEntityType(), event.getAction());
+        } else {
+            droppedCounter.increment();
+            logger.warn("Audit buffer full, dropped {} {}", event.getEntityType(), event.getAction());
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = writerThread;
+        }
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runWriter() {
+        List<PendingAudit> pending = new ArrayList<>(batchSize);
+        long firstPendingAt = 0L;
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+        while (running) {
+            int before = pending.size();
+            buffer.drainTo(pending, batchSize - pending.size());
+            if (before == 0 && !pending.isEmpty()) {
+                firstPendingAt = System.nanoTime();
+            }
+
+            if (pending.size() >= batchSize
+                    || (!pending.isEmpty() && System.nanoTime() - firstPendingAt >= flushIntervalNanos)) {
+                flushSafely(pending);
+            } else if (pending.size() == before) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+
+        // Shutdown: write whatever is left
+        do {
+            buffer.drainTo(pending, batchSize - pending.size());
+            if (!pending.isEmpty()) {
+                flushSafely(pending);
+            }
+        } while (buffer.size() > 0);
+    }
+
+    // This is the only writer thread, so nothing may escape it; the events of
+    // a batch that blew up are still in the journal and come back from there
+    private void flushSafely(List<PendingAudit> batch) {
+        try {
+            flush(batch);
+        } catch (RuntimeException e) {
+            flushErrorsCounter.increment();
+            failedCounter.increment(batch.size());
+            logger.error("Failed to flush {} audit events, leaving them to the journal", batch.size(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingAudit> batch) {
+        // Ids are fixed up front so a retry cannot insert a row twice
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        List<PendingAudit> built = new ArrayList<>(batch.size());
+        for (PendingAudit pending : batch) {
+            try {
+                rows.add(toRow(pending.event()));
+                built.add(pending);
+            } catch (RuntimeException e) {
+                // Not acknowledged: the journal delivers it again
+                failedCounter.increment();
+                logger.error("Failed to build audit row for {} {}", pending.event().getEntityType(),
+                        pending.event().getAction(), e);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            long backoff = retryBackoffMs;
+            for (int attempt = 0; attempt <= maxRetries; attempt++) {
+                if (attempt > 0) {
+                    retriedCounter.increment();
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoff));
+                    backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF_MS);
+                }
+                try {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+                    writtenCounter.increment(rows.size());
+                    built.forEach(pending -> eventJournal.acknowledge(pending.journalOffset()));
+                    return;
+                } catch (DuplicateKeyException e) {
+                    // Part of an earlier attempt was committed
+                    break;
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to write {} audit events (attempt {} of {}): {}", rows.size(), attempt + 1,
+                            maxRetries + 1, e.getMessage());
+                }
+            }
+            flushOneByOne(built, rows);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizeSummary.record(rows.size());
+        }
+    }
+
+    // Isolates the rows that keep failing; a duplicate key means the row made
+    // it in an earlier attempt
+    private void flushOneByOne(List<PendingAudit> batch, List<Object[]> rows) {
+        int failed = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, rows.get(i));
+                writtenCounter.increment();
+            } catch (DuplicateKeyException e) {
+                // Already written
+            } catch (RuntimeException e) {
+                // Not acknowledged: the journal delivers it again
+                failed++;
+                logger.error("Failed to write audit event {} {}", batch.get(i).event().getEntityType(),
+                        batch.get(i).event().getAction(), e);
+                continue;
+            }
+            eventJournal.acknowledge(batch.get(i).journalOffset());
+        }
+        failedCounter.increment(failed);
+    }
+
+    private Object[] toRow(AuditEvent event) {
+        if (event.getTimestamp() == null) {
+            throw new IllegalArgumentException("Audit event has no timestamp");
+        }
+        return new Object[] { TimeSortableIds.next(), event.getEntityType(), event.getEntityId(),
+                event.getAction(), event.getPerformedBy(), Timestamp.valueOf(event.getTimestamp()),
+                event.getTenantId(), serialize(event) };
+    }
+
+    private String serialize(AuditEvent event) {
+        if (event.getDetails() == null) {
+            return "{}";
+        }
+        try {
+            return objectMapper.writeValueAsString(event.getDetails());
+        } catch (JsonProcessingException e) {
+            // Keep the record, lose the details
+            return "{}";
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.dto.ExportJobResponse;
+import com.example.workflow_management_system.model.ExportJobStatus;
+import com.example.workflow_management_system.security.SecurityUtils;
+import com.example.workflow_management_system.security.TenantContext;
+import com.example.workflow_management_system.security.UserPrincipal;
+import com.example.workflow_management_system.util.TimeSortableIds;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Runs exports in the background. {@link #submit} registers a job and hands
+ * it to the bounded export executor; the worker runs the export as the
+ * submitting user and writes it gzipped to the spool directory, first as
+ * {@code .part} and moved into place once complete. Jobs and their artifacts
+ * are dropped {@code retention-hours} after they were created.
+ *
+ * The job registry and the spool are local to the node: status and download
+ * requests must reach the node that ran the job, and jobs do not survive a
+ * restart (leftover spool files are deleted at startup).
+ */
+@Service
+public class ExportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobService.class);
+
+    public enum Kind {
+        REQUESTS("requests"), AUDIT_LOGS("audit_logs"), ASSIGNMENTS("assignments");
+
+        private final String fileName;
+
+        Kind(String fileName) {
+            this.fileName = fileName;
+        }
+    }
+
+    /** The export itself, writing to the (gzipping) spool stream. */
+    @FunctionalInterface
+    public interface ExportTask {
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+    /** A completed artifact ready to be sent. */
+    public record Download(Path file, String fileName, long size, String etag) {
+    }
+
+    private static final class Job {
+        final Long id = TimeSortableIds.next();
+        final Long userId;
+        final Long tenantId;
+        final Kind kind;
+        final ExportService.ExportFormat format;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        final AtomicLong bytesWritten = new AtomicLong();
+        volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+        volatile Long fileSize;
+        volatile String error;
+        volatile LocalDateTime completedAt;
+
+        Job(Long userId, Long tenantId, Kind kind, ExportService.ExportFormat format) {
+            this.userId = userId;
+            this.tenantId = tenantId;
+            this.kind = kind;
+            this.format = format;
+        }
+
+        boolean isActive() {
+            return status == ExportJobStatus.QUEUED || status == ExportJobStatus.RUNNING;
+        }
+
+        String fileName() {
+            return kind.fileName + "_" + id + "." + format.name().toLowerCase() + ".gz";
+        }
+    }
+
+    private final Executor exportExecutor;
+    private final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+    // Queued and running jobs per user, changed only through compute so the
+    // limit check and the increment are one step
+    private final Map<Long, Integer> activeByUser = new ConcurrentHashMap<>();
+
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+    private final Timer jobTimer;
+
+    @Value("${app.exports.spool-dir:data/exports}")
+    private String spoolDir;
+
+    @Value("${app.exports.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${app.exports.max-active-per-user:3}")
+    private int maxActivePerUser;
+
+    public ExportJobService(@Qualifier("exportExecutor") Executor exportExecutor, MeterRegistry meterRegistry) {
+        this.exportExecutor = exportExecutor;
+
+        this.completedCounter = Counter.builder("export_jobs_total").tag("status", "completed")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("export_jobs_total").tag("status", "failed").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("export_jobs_total").tag("status", "rejected")
+                .register(meterRegistry);
+        this.jobTimer = meterRegistry.timer("export_job_duration");
+        Gauge.builder("export_jobs_active", jobs, j -> j.values().stream().filter(Job::isActive).count())
+                .register(meterRegistry);
+    }
+
+    // Jobs are not persisted, so whatever an earlier run left is unreachable
+    @PostConstruct
+    void cleanSpool() throws IOException {
+        Path dir = spool();
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".gz")
+                    || file.getFileName().toString().endsWith(".part"))
+                    .forEach(ExportJobService::deleteQuietly);
+        }
+    }
+
+    /**
+     * Queues an export for the current user. Returns 429 when the user already
+     * has {@code max-active-per-user} jobs queued or running, 503 when the
+     * export executor is full.
+     */
+    public ExportJobResponse submit(Kind kind, ExportService.ExportFormat format, ExportTask task) {
+        UserPrincipal user = SecurityUtils.getCurrentUser();
+        if (!reserveSlot(user.getId())) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many exports in progress, wait for one to finish");
+        }
+
+        Job job = new Job(user.getId(), user.getTenantId(), kind, format);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        jobs.put(job.id, job);
+        try {
+            exportExecutor.execute(() -> run(job, authentication, task));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            releaseSlot(job.userId);
+            rejectedCounter.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Export queue is full, try again later");
+        }
+        return toResponse(job);
+    }
+
+    private boolean reserveSlot(Long userId) {
+        boolean[] reserved = { false };
+        activeByUser.compute(userId, (id, active) -> {
+            int current = active == null ? 0 : active;
+            if (current >= maxActivePerUser) {
+                return active;
+            }
+            reserved[0] = true;
+            return current + 1;
+        });
+        return reserved[0];
+    }
+
+    private void releaseSlot(Long userId) {
+        activeByUser.computeIfPresent(userId, (id, active) -> active <= 1 ? null : active - 1);
+    }
+
+    public ExportJobResponse getJob(Long id) {
+        return toResponse(findOwnJob(id));
+    }
+
+    /** The artifact of a COMPLETED job of the current user, 409 otherwise. */
+    public Download getDownload(Long id) {
+        Job job = findOwnJob(id);
+        if (job.status != ExportJobStatus.COMPLETED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Export is " + job.status);
+        }
+        Path file = spool().resolve(job.fileName());
+        if (!Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Export file is no longer available");
+        }
+        // The artifact never changes once written, so id and size identify it
+        return new Download(file, job.fileName(), job.fileSize, "\"" + job.id + "-" + job.fileSize + "\"");
+    }
+
+    @Scheduled(fixedDelayString = "${app.exports.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        jobs.values().removeIf(job -> {
+            if (job.isActive() || job.createdAt.isAfter(cutoff)) {
+                return false;
+            }
+            deleteQuietly(spool().resolve(job.fileName()));
+            return true;
+        });
+    }
+
+    private void run(Job job, Authentication authentication, ExportTask task) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+        TenantContext.setTenantId(job.tenantId);
+
+        Path file = spool().resolve(job.fileName());
+        Path part = spool().resolve(job.fileName() + ".part");
+        long started = System.nanoTime();
+        job.status = ExportJobStatus.RUNNING;
+        try {
+            try (OutputStream out = new CountingOutputStream(new GZIPOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(part)), 64 * 1024), job.bytesWritten)) {
+                task.writeTo(out);
+            }
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.fileSize = Files.size(file);
+            job.status = ExportJobStatus.COMPLETED;
+            completedCounter.increment();
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(part);
+            job.error = e instanceof ResponseStatusException rse ? rse.getReason() : "Export failed";
+            job.status = ExportJobStatus.FAILED;
+            failedCounter.increment();
+            logger.error("Export job {} ({}) failed", job.id, job.kind, e);
+        } finally {
+            job.completedAt = LocalDateTime.now();
+            releaseSlot(job.userId);
+            jobTimer.record(Duration.ofNanos(System.nanoTime() - started));
+            SecurityContextHolder.clearContext();
+            TenantContext.clear();
+        }
+    }
+
+    // Other users' jobs look the same as unknown ones
+    private Job findOwnJob(Long id) {
+        Job job = jobs.get(id);
+        if (job == null || !job.userId.equals(SecurityUtils.getCurrentUser().getId())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Export job not found");
+        }
+        return job;
+    }
+
+    private ExportJobResponse toResponse(Job job) {
+        return new ExportJobResponse(job.id, job.kind.name(), job.format.name(), job.status,
+                job.bytesWritten.get(), job.fileSize, job.error, job.createdAt, job.completedAt,
+                job.status == ExportJobStatus.COMPLETED ? "/api/exports/" + job.id + "/download" : null);
+    }
+
+    private Path spool() {
+        return Paths.get(spoolDir);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete export file {}", file, e);
+        }
+    }
+
+    // Progress for the status endpoint, in bytes before compression
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private final AtomicLong count;
+
+        CountingOutputStream(OutputStream out, AtomicLong count) {
+            super(out);
+            this.count = count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count.addAndGet(len);
+        }
+    }
+}
@@ -1,20 +1,32 @@
 package com.example.workflow_management_system.service;
 
 import com.example.workflow_management_system.dto.RequestAssignmentResponse;
-import com.example.workflow_management_system.dto.RequestResponse;
+import com.example.workflow_management_system.dto.RequestExportRow;
 import com.example.workflow_management_system.model.AuditLog;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.util.Iterator;
 import java.util.List;
-
+import java.util.stream.Stream;
+
+/**
+ * Writes exports as CSV or XLSX. XLSX goes through a streaming
+ * {@link SXSSFWorkbook}: only the last {@code row-access-window} rows are
+ * kept in memory, older ones are flushed to a compressed temporary file that
+ * is deleted when the export ends, successfully or not. A sheet holds at most
+ * {@code max-rows-per-sheet} data rows; further rows continue on a new sheet
+ * ("Requests (2)", ...) with its own header row.
+ */
 @Service
 public class ExportService {
 
@@ -22,7 +34,18 @@ public class ExportService {
         CSV, XLSX
     }
 
-    public void exportRequests(List<RequestResponse> requests, ExportFormat format, OutputStream outputStream)
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(Row row, T item);
+    }
+
+    @Value("${app.export.xlsx.row-access-window:100}")
+    private int rowAccessWindow;
+
+    @Value("${app.export.xlsx.max-rows-per-sheet:1000000}")
+    private int maxRowsPerSheet;
+
+    public void exportRequests(Stream<RequestExportRow> requests, ExportFormat format, OutputStream outputStream)
             throws IOException {
         if (format == ExportFormat.CSV) {
             exportRequestsCsv(requests, outputStream);
@@ -40,7 +63,7 @@ public class ExportService {
         }
     }
 
-    public void exportAuditLogs(List<AuditLog> auditLogs, ExportFormat format, OutputStream outputStream)
+    public void exportAuditLogs(Stream<AuditLog> auditLogs, ExportFormat format, OutputStream outputStream)
             throws IOException {
         if (format == ExportFormat.CSV) {
             exportAuditLogsCsv(auditLogs, outputStream);
@@ -49,11 +72,13 @@ public class ExportService {
         }
     }
 
-    private void exportRequestsCsv(List<RequestResponse> requests, OutputStream outputStream) throws IOException {
+    // Each record is written as its row comes off the cursor
+    private void exportRequestsCsv(Stream<RequestExportRow> requests, OutputStream outputStream) throws IOException {
         try (Writer writer = new OutputStreamWriter(outputStream);
                 CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.builder()
                         .setHeader("ID", "Workflow", "Status", "Current Step", "Created By", "Created At").build())) {
-            for (RequestResponse request : requests) {
+            for (Iterator<RequestExportRow> rows = requests.iterator(); rows.hasNext();) {
+                RequestExportRow request = rows.next();
                 csvPrinter.printRecord(
                         request.id(),
                         request.workflowName(),
@@ -65,28 +90,16 @@ public class ExportService {
         }
     }
 
-    private void exportRequestsExcel(List<RequestResponse> requests, OutputStream outputStream) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Requests");
-            Row headerRow = sheet.createRow(0);
-            String[] headers = { "ID", "Workflow", "Status", "Current Step", "Created By", "Created At" };
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-            }
-
-            int rowNum = 1;
-            for (RequestResponse request : requests) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(request.id());
-                row.createCell(1).setCellValue(request.workflowName());
-                row.createCell(2).setCellValue(request.status().toString());
-                row.createCell(3).setCellValue(request.currentStepName());
-                row.createCell(4).setCellValue(request.createdByUsername());
-                row.createCell(5).setCellValue(request.createdAt().toString());
-            }
-            workbook.write(outputStream);
-        }
+    private void exportRequestsExcel(Stream<RequestExportRow> requests, OutputStream outputStream) throws IOException {
+        String[] headers = { "ID", "Workflow", "Status", "Current Step", "Created By", "Created At" };
+        writeWorkbook("Requests", headers, requests.iterator(), (row, request) -> {
+            row.createCell(0).setCellValue(request.id());
+            row.createCell(1).setCellValue(request.workflowName());
+            row.createCell(2).setCellValue(request.status().toString());
+            row.createCell(3).setCellValue(request.currentStepName());
+            row.createCell(4).setCellValue(request.createdByUsername());
+            row.createCell(5).setCellValue(request.createdAt().toString());
+        }, outputStream);
     }
 
     private void exportAssignmentsCsv(List<RequestAssignmentResponse> assignments, OutputStream outputStream)
@@ -108,38 +121,27 @@ public class ExportService {
 
     private void exportAssignmentsExcel(List<RequestAssignmentResponse> assignments, OutputStream outputStream)
             throws IOException {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Assignments");
-            Row headerRow = sheet.createRow(0);
-            String[] headers = { "ID", "Request ID", "Assigned To", "Status", "Assigned At", "Due At" };
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
+        String[] headers = { "ID", "Request ID", "Assigned To", "Status", "Assigned At", "Due At" };
+        writeWorkbook("Assignments", headers, assignments.iterator(), (row, assignment) -> {
+            row.createCell(0).setCellValue(assignment.id());
+            row.createCell(1).setCellValue(assignment.requestId());
+            row.createCell(2).setCellValue(assignment.assignedToUsername());
+            row.createCell(3).setCellValue(assignment.status().toString());
+            row.createCell(4).setCellValue(assignment.assignedAt().toString());
+            if (assignment.dueAt() != null) {
+                row.createCell(5).setCellValue(assignment.dueAt().toString());
             }
-
-            int rowNum = 1;
-            for (RequestAssignmentResponse assignment : assignments) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(assignment.id());
-                row.createCell(1).setCellValue(assignment.requestId());
-                row.createCell(2).setCellValue(assignment.assignedToUsername());
-                row.createCell(3).setCellValue(assignment.status().toString());
-                row.createCell(4).setCellValue(assignment.assignedAt().toString());
-                if (assignment.dueAt() != null) {
-                    row.createCell(5).setCellValue(assignment.dueAt().toString());
-                }
-            }
-            workbook.write(outputStream);
-        }
+        }, outputStream);
     }
 
-    private void exportAuditLogsCsv(List<AuditLog> auditLogs, OutputStream outputStream) throws IOException {
+    private void exportAuditLogsCsv(Stream<AuditLog> auditLogs, OutputStream outputStream) throws IOException {
         try (Writer writer = new OutputStreamWriter(outputStream);
                 CSVPrinter csvPrinter = new CSVPrinter(writer,
                         CSVFormat.DEFAULT.builder()
                                 .setHeader("ID", "Action", "Entity Type", "Entity ID", "Actor", "Timestamp", "Details")
                                 .build())) {
-            for (AuditLog log : auditLogs) {
+            for (Iterator<AuditLog> logs = auditLogs.iterator(); logs.hasNext();) {
+                AuditLog log = logs.next();
                 csvPrinter.printRecord(
                         log.getId(),
                         log.getAction(),
@@ -152,28 +154,52 @@ public class ExportService {
         }
     }
 
-    private void exportAuditLogsExcel(List<AuditLog> auditLogs, OutputStream outputStream) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("Audit Logs");
-            Row headerRow = sheet.createRow(0);
-            String[] headers = { "ID", "Action", "Entity Type", "Entity ID", "Actor", "Timestamp", "Details" };
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-            }
+    private void exportAuditLogsExcel(Stream<AuditLog> auditLogs, OutputStream outputStream) throws IOException {
+        String[] headers = { "ID", "Action", "Entity Type", "Entity ID", "Actor", "Timestamp", "Details" };
+        writeWorkbook("Audit Logs", headers, auditLogs.iterator(), (row, log) -> {
+            row.createCell(0).setCellValue(log.getId());
+            row.createCell(1).setCellValue(log.getAction());
+            row.createCell(2).setCellValue(log.getEntityType());
+            row.createCell(3).setCellValue(log.getEntityId());
+            row.createCell(4).setCellValue(log.getPerformedBy());
+            row.createCell(5).setCellValue(log.getTimestamp().toString());
+            row.createCell(6).setCellValue(log.getDetails());
+        }, outputStream);
+    }
 
+    private <T> void writeWorkbook(String sheetName, String[] headers, Iterator<T> items, RowWriter<T> rowWriter,
+            OutputStream outputStream) throws IOException {
+        // The header takes one of the format's rows
+        int rowsPerSheet = Math.max(1, Math.min(maxRowsPerSheet, SpreadsheetVersion.EXCEL2007.getMaxRows() - 1));
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowAccessWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            int sheets = 0;
+            Sheet sheet = newSheet(workbook, sheetName, ++sheets, headers);
             int rowNum = 1;
-            for (AuditLog log : auditLogs) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(log.getId());
-                row.createCell(1).setCellValue(log.getAction());
-                row.createCell(2).setCellValue(log.getEntityType());
-                row.createCell(3).setCellValue(log.getEntityId());
-                row.createCell(4).setCellValue(log.getPerformedBy());
-                row.createCell(5).setCellValue(log.getTimestamp().toString());
-                row.createCell(6).setCellValue(log.getDetails());
+            while (items.hasNext()) {
+                if (rowNum > rowsPerSheet) {
+                    sheet = newSheet(workbook, sheetName, ++sheets, headers);
+                    rowNum = 1;
+                }
+                rowWriter.write(sheet.createRow(rowNum++), items.next());
             }
             workbook.write(outputStream);
+        } finally {
+            // close() alone leaves the flushed rows in the temp directory
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static Sheet newSheet(Workbook workbook, String name, int number, String[] headers) {
+        Sheet sheet = workbook.createSheet(number == 1 ? name : name + " (" + number + ")");
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
         }
+        return sheet;
     }
 }
@@ -0,0 +1,73 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.model.JobLease;
+import com.example.workflow_management_system.repository.JobLeaseRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Acquires and releases {@link JobLease} rows. Every call commits on its own,
+ * so a lease is visible to the other nodes as soon as it is taken. Leases
+ * expire on their own, which covers a node dying mid-job.
+ */
+@Service
+public class JobLeaseService {
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final TransactionTemplate leaseTransactionTemplate;
+    private final String ownerId;
+
+    public JobLeaseService(JobLeaseRepository jobLeaseRepository, PlatformTransactionManager transactionManager) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.leaseTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaseTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ownerId = resolveHostName() + ":" + java.util.UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Takes the lease if it is free or expired, or extends it if this node
+     * already holds it. Returns false when another node holds it.
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(ttl);
+        try {
+            return Boolean.TRUE.equals(leaseTransactionTemplate.execute(status -> {
+                if (jobLeaseRepository.acquire(name, ownerId, now, until) > 0) {
+                    return true;
+                }
+                if (jobLeaseRepository.existsById(name)) {
+                    return false;
+                }
+                jobLeaseRepository.saveAndFlush(new JobLease(name, ownerId, until));
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lease row first
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        leaseTransactionTemplate.executeWithoutResult(
+                status -> jobLeaseRepository.release(name, ownerId, LocalDateTime.now()));
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    private static String resolveHostName() {
+        try {
+            return java.net.InetAddress.getLocalHost().getHostName();
+        } catch (java.net.UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.event.AssignmentsCreatedEvent;
+import com.example.workflow_management_system.event.NotificationType;
+import com.example.workflow_management_system.model.MailDigestItem;
+import com.example.workflow_management_system.model.Tenant;
+import com.example.workflow_management_system.repository.MailDigestItemRepository;
+import com.example.workflow_management_system.repository.TenantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces assignment emails per recipient for tenants with a digest window
+ * ({@link Tenant#getMailDigestMinutes()}, falling back to
+ * {@code app.mail.digest.default-minutes}). Each assignment is stored as a
+ * {@link MailDigestItem}; the window starts with a recipient's oldest pending
+ * item. When it closes, or {@code max-items} have piled up, the items are
+ * rendered into one email that is queued and the items deleted in the same
+ * transaction, so nothing is lost or sent twice across a restart. A single
+ * pending item goes out as the regular assignment email.
+ */
+@Service
+public class MailDigestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailDigestService.class);
+
+    static final String LEASE_NAME = "mail-digest";
+
+    private static final String TYPE_ASSIGNED = NotificationType.REQUEST_ASSIGNED.name();
+
+    private final MailDigestItemRepository mailDigestItemRepository;
+    private final TenantRepository tenantRepository;
+    private final MailService mailService;
+    private final MailTemplateService mailTemplateService;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate flushTransactionTemplate;
+
+    private final Counter coalescedCounter;
+    private final Counter digestsCounter;
+
+    @Value("${app.mail.digest.default-minutes:0}")
+    private int defaultMinutes;
+
+    @Value("${app.mail.digest.max-items:50}")
+    private int maxItems;
+
+    @Value("${app.mail.digest.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${app.frontend.url}")
+    private String frontendUrl;
+
+    public MailDigestService(MailDigestItemRepository mailDigestItemRepository,
+            TenantRepository tenantRepository,
+            MailService mailService,
+            MailTemplateService mailTemplateService,
+            JobLeaseService jobLeaseService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.mailDigestItemRepository = mailDigestItemRepository;
+        this.tenantRepository = tenantRepository;
+        this.mailService = mailService;
+        this.mailTemplateService = mailTemplateService;
+        this.jobLeaseService = jobLeaseService;
+        this.flushTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.coalescedCounter = meterRegistry.counter("mail_digest_items_total");
+        this.digestsCounter = meterRegistry.counter("mail_digest_sent_total");
+    }
+
+    /**
+     * Buffers the assignment emails of the event when its tenant has a digest
+     * window. Returns false when the tenant gets them one by one.
+     */
+    public boolean coalesceAssignments(AssignmentsCreatedEvent event) {
+        int minutes = windowMinutes(event.getTenantId());
+        if (minutes <= 0) {
+            return false;
+        }
+        LocalDateTime flushAt = LocalDateTime.now().plusMinutes(minutes);
+        List<MailDigestItem> items = event.getAssignees().stream()
+                .filter(assignee -> assignee.email() != null && !assignee.email().isBlank())
+                .map(assignee -> new MailDigestItem(assignee.email(), assignee.username(), TYPE_ASSIGNED,
+                        event.getTenantId(), event.getRequestId(), event.getStepName(), flushAt))
+                .collect(Collectors.toList());
+        mailDigestItemRepository.saveAll(items);
+        coalescedCounter.increment(items.size());
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.digest.poll-interval-ms:30000}")
+    public void flushDue() {
+        if (!renewLease()) {
+            return;
+        }
+        try {
+            for (Object[] digest : mailDigestItemRepository.findDueDigests(LocalDateTime.now(), maxItems)) {
+                String recipient = (String) digest[0];
+                // Renewed per recipient, so a long run never outlives its
+                // lease and overlaps another node's
+                if (!renewLease()) {
+                    logger.warn("Lost the {} lease, leaving the remaining digests to its holder", LEASE_NAME);
+                    return;
+                }
+                try {
+                    flush(recipient, (String) digest[1]);
+                } catch (RuntimeException e) {
+                    // Items stay for the next poll
+                    logger.error("Failed to flush {} digest for {}", digest[1], recipient, e);
+                }
+            }
+        } finally {
+            jobLeaseService.release(LEASE_NAME);
+        }
+    }
+
+    private boolean renewLease() {
+        return jobLeaseService.tryAcquire(LEASE_NAME, Duration.ofSeconds(leaseSeconds));
+    }
+
+    private void flush(String recipient, String type) {
+        Integer flushed;
+        do {
+            flushed = flushTransactionTemplate.execute(status -> {
+                List<MailDigestItem> items = mailDigestItemRepository.findByRecipientAndTypeOrderByIdAsc(recipient,
+                        type, PageRequest.of(0, maxItems));
+                // What is left after full digests waits for its own window
+                if (items.isEmpty() || (items.size() < maxItems
+                        && items.get(0).getFlushAt().isAfter(LocalDateTime.now()))) {
+                    return 0;
+                }
+                send(recipient, type, items);
+                mailDigestItemRepository.deleteByIds(items.stream().map(MailDigestItem::getId).toList());
+                return items.size();
+            });
+        } while (flushed != null && flushed == maxItems);
+    }
+
+    private void send(String recipient, String type, List<MailDigestItem> items) {
+        if (!TYPE_ASSIGNED.equals(type)) {
+            throw new IllegalStateException("No digest email for " + type);
+        }
+        MailDigestItem first = items.get(0);
+        String name = Objects.toString(first.getRecipientName(), "");
+
+        if (items.size() == 1) {
+            String requestId = String.valueOf(first.getRequestId());
+            mailService.sendHtmlMail(recipient, "New Request Assignment",
+                    mailTemplateService.render("request_assigned", Map.of(
+                            "assigneeName", name,
+                            "requestId", requestId,
+                            "link", frontendUrl + "/requests/" + requestId)));
+            return;
+        }
+
+        MailTemplate itemTemplate = mailTemplateService.getTemplate("request_assigned_digest_item");
+        StringBuilder itemsHtml = new StringBuilder(items.size() * 128);
+        for (MailDigestItem item : items) {
+            String requestId = String.valueOf(item.getRequestId());
+            itemTemplate.renderTo(itemsHtml, Map.of(
+                    "requestId", requestId,
+                    "stepName", Objects.toString(item.getStepName(), ""),
+                    "link", frontendUrl + "/requests/" + requestId));
+        }
+        mailService.sendHtmlMail(recipient, items.size() + " New Request Assignments",
+                mailTemplateService.render("request_assigned_digest", Map.of(
+                        "assigneeName", name,
+                        "count", String.valueOf(items.size()),
+                        "items", itemsHtml.toString())));
+        digestsCounter.increment();
+    }
+
+    private int windowMinutes(Long tenantId) {
+        if (tenantId == null) {
+            return defaultMinutes;
+        }
+        return tenantRepository.findById(tenantId)
+                .map(Tenant::getMailDigestMinutes)
+                .orElse(defaultMinutes);
+    }
+}
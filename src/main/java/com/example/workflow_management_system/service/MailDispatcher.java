@@ -0,0 +1,332 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.model.MailStatus;
+import com.example.workflow_management_system.model.QueuedMail;
+import com.example.workflow_management_system.repository.QueuedMailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the {@link QueuedMail} rows written by MailService. One node at a
+ * time dispatches, guarded by a {@link JobLeaseService} lease. Each poll walks
+ * the recipient domains with due mail, longest waiting first, and fetches
+ * each domain's rows separately, only as many as its free connections can
+ * take; up to {@code batch-size} rows per poll. They go to the mail executor
+ * in batches of {@code messages-per-connection}, a batch sent over a single
+ * SMTP connection. At most {@code max-connections-per-domain} batches per
+ * domain are in flight; a domain with none free is skipped, so its backlog
+ * never holds up mail for the others.
+ *
+ * Sent rows are deleted. A failed message is retried with exponential backoff
+ * (with jitter) up to {@code max-attempts} times, then marked FAILED; an
+ * address the server rejects outright fails at once. Delivery is
+ * at-least-once: a node dying mid-batch leaves its rows PENDING.
+ *
+ * Works against any SMTP server reachable through spring.mail.*, so tests can
+ * point it at an in-process stand-in.
+ */
+@Component
+public class MailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailDispatcher.class);
+
+    static final String LEASE_NAME = "mail-dispatcher";
+
+    private final QueuedMailRepository queuedMailRepository;
+    private final JavaMailSender mailSender;
+    private final JobLeaseService jobLeaseService;
+    private final Executor mailExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    // Rows handed to the executor and not yet settled, so polls skip them
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String, Semaphore> domainPermits = new ConcurrentHashMap<>();
+
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Counter connectionsCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    @Value("${app.mail.from:noreply@workflowsystem.com}")
+    private String from;
+
+    @Value("${app.mail.dispatcher.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.mail.dispatcher.messages-per-connection:50}")
+    private int messagesPerConnection;
+
+    @Value("${app.mail.dispatcher.max-connections-per-domain:2}")
+    private int maxConnectionsPerDomain;
+
+    @Value("${app.mail.dispatcher.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.dispatcher.backoff-initial-seconds:30}")
+    private long backoffInitialSeconds;
+
+    @Value("${app.mail.dispatcher.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    @Value("${app.mail.dispatcher.lease-seconds:30}")
+    private long leaseSeconds;
+
+    // Only touched by the scheduler thread running poll()
+    private long leaseRenewAt;
+    private volatile boolean leaseHeld;
+
+    public MailDispatcher(QueuedMailRepository queuedMailRepository,
+            JavaMailSender mailSender,
+            JobLeaseService jobLeaseService,
+            @Qualifier("mailExecutor") Executor mailExecutor,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.queuedMailRepository = queuedMailRepository;
+        this.mailSender = mailSender;
+        this.jobLeaseService = jobLeaseService;
+        this.mailExecutor = mailExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.sentCounter = meterRegistry.counter("mail_sent_total");
+        this.retriedCounter = meterRegistry.counter("mail_retried_total");
+        this.failedCounter = meterRegistry.counter("mail_failed_total");
+        this.connectionsCounter = meterRegistry.counter("mail_smtp_connections_total");
+        this.batchTimer = meterRegistry.timer("mail_batch_duration");
+        Gauge.builder("mail_queue_lag_seconds", lagMillis, v -> v.get() / 1000.0).register(meterRegistry);
+        Gauge.builder("mail_in_flight", inFlight, Set::size).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.dispatcher.poll-interval-ms:500}")
+    public void poll() {
+        if (!holdLease()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<String> domains = transactionTemplate.execute(status -> queuedMailRepository
+                .findDueDomains(MailStatus.PENDING, now, PageRequest.of(0, batchSize)));
+        LocalDateTime oldest = null;
+        int budget = batchSize;
+        for (String domain : domains) {
+            if (budget <= 0) {
+                break;
+            }
+            Semaphore permits = permitsFor(domain);
+            int free = permits.availablePermits();
+            if (free == 0) {
+                // Saturated: its rows wait, the other domains go ahead
+                continue;
+            }
+            // Taken before the query: a batch that settles while it runs may
+            // still show up in the result and must not be sent again. Only
+            // this domain's busy batches can, at most one per used permit.
+            Set<Long> busy = new HashSet<>(inFlight);
+            int limit = Math.min(budget, free * messagesPerConnection);
+            int busyRows = (maxConnectionsPerDomain - free) * messagesPerConnection;
+            List<QueuedMail> due = transactionTemplate.execute(status -> queuedMailRepository
+                    .findDueForDomain(MailStatus.PENDING, domain, now, PageRequest.of(0, limit + busyRows)));
+            due.removeIf(mail -> busy.contains(mail.getId()));
+            if (due.size() > limit) {
+                due = due.subList(0, limit);
+            }
+            for (QueuedMail mail : due) {
+                if (oldest == null || mail.getNextAttemptAt().isBefore(oldest)) {
+                    oldest = mail.getNextAttemptAt();
+                }
+            }
+            budget -= due.size();
+            if (!submit(permits, due)) {
+                break;
+            }
+        }
+        lagMillis.set(oldest == null ? 0L : Math.max(0L, Duration.between(oldest, now).toMillis()));
+    }
+
+    private Semaphore permitsFor(String domain) {
+        return domainPermits.computeIfAbsent(domain, d -> new Semaphore(maxConnectionsPerDomain));
+    }
+
+    // Returns false once the executor rejects a batch, so the poll stops
+    private boolean submit(Semaphore permits, List<QueuedMail> mails) {
+        for (int start = 0; start < mails.size(); start += messagesPerConnection) {
+            if (!permits.tryAcquire()) {
+                return true;
+            }
+            List<QueuedMail> batch = mails.subList(start, Math.min(start + messagesPerConnection, mails.size()));
+            batch.forEach(mail -> inFlight.add(mail.getId()));
+            Runnable settle = () -> {
+                batch.forEach(mail -> inFlight.remove(mail.getId()));
+                permits.release();
+            };
+            try {
+                mailExecutor.execute(() -> {
+                    try {
+                        sendBatch(batch);
+                    } finally {
+                        settle.run();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Executor saturated; the rows stay queued for a later poll
+                settle.run();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sends the given rows over one SMTP connection, deletes the ones the
+     * server accepted and reschedules or fails the others.
+     */
+    void sendBatch(List<QueuedMail> batch) {
+        batchTimer.record(() -> {
+            Map<MimeMessage, QueuedMail> messages = new LinkedHashMap<>();
+            for (QueuedMail mail : batch) {
+                try {
+                    messages.put(toMimeMessage(mail), mail);
+                } catch (MessagingException | RuntimeException e) {
+                    settleFailure(mail, e);
+                }
+            }
+            if (messages.isEmpty()) {
+                return;
+            }
+
+            Map<Object, Exception> failures = Map.of();
+            try {
+                connectionsCounter.increment();
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                failures = e.getFailedMessages();
+            } catch (MailException e) {
+                // Authentication or connection setup; nothing was sent
+                Map<Object, Exception> all = new LinkedHashMap<>();
+                messages.keySet().forEach(message -> all.put(message, e));
+                failures = all;
+            }
+
+            List<Long> sent = new ArrayList<>();
+            for (Map.Entry<MimeMessage, QueuedMail> entry : messages.entrySet()) {
+                Exception failure = failures.get(entry.getKey());
+                if (failure == null) {
+                    sent.add(entry.getValue().getId());
+                } else {
+                    settleFailure(entry.getValue(), failure);
+                }
+            }
+            if (!sent.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> queuedMailRepository.deleteByIds(sent));
+                sentCounter.increment(sent.size());
+            }
+        });
+    }
+
+    private MimeMessage toMimeMessage(QueuedMail mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "utf-8");
+        helper.setText(mail.getBody(), mail.isHtml());
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(mail.getSubject());
+        helper.setFrom(from);
+        return message;
+    }
+
+    private void settleFailure(QueuedMail mail, Exception failure) {
+        int attempts = mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        mail.setLastError(truncate(String.valueOf(failure.getMessage()), 1000));
+        if (isPermanent(failure) || attempts >= maxAttempts) {
+            mail.setStatus(MailStatus.FAILED);
+            failedCounter.increment();
+            logger.error("Giving up on mail {} to {} after {} attempts", mail.getId(), mail.getRecipient(), attempts,
+                    failure);
+        } else {
+            mail.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+            retriedCounter.increment();
+            logger.warn("Mail {} to {} failed (attempt {}), retrying at {}: {}", mail.getId(), mail.getRecipient(),
+                    attempts, mail.getNextAttemptAt(), failure.getMessage());
+        }
+        transactionTemplate.executeWithoutResult(status -> queuedMailRepository.save(mail));
+    }
+
+    // initial * 2^(attempts - 1), capped, +-20% so a failed fan-out does not retry in lockstep
+    private Duration backoff(int attempts) {
+        long seconds = Math.min(backoffMaxSeconds, backoffInitialSeconds << Math.min(attempts - 1, 20));
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (seconds * 1000 * jitter));
+    }
+
+    // Malformed addresses and recipients the server rejects will not succeed on a retry
+    private static boolean isPermanent(Exception failure) {
+        if (failure instanceof AddressException) {
+            return true;
+        }
+        return failure instanceof SendFailedException sendFailed && sendFailed.getInvalidAddresses() != null
+                && sendFailed.getInvalidAddresses().length > 0;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private boolean holdLease() {
+        long now = System.currentTimeMillis();
+        if (now < leaseRenewAt) {
+            return leaseHeld;
+        }
+        leaseHeld = jobLeaseService.tryAcquire(LEASE_NAME, Duration.ofSeconds(leaseSeconds));
+        // Renew at half the lease time, see OutboxRelay
+        leaseRenewAt = now + leaseSeconds * 500;
+        if (!leaseHeld) {
+            lagMillis.set(0L);
+        }
+        return leaseHeld;
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        if (leaseHeld) {
+            leaseHeld = false;
+            jobLeaseService.release(LEASE_NAME);
+        }
+    }
+}
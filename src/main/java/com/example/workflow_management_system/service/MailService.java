@@ -1,16 +1,20 @@
 package com.example.workflow_management_system.service;
 
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import com.example.workflow_management_system.model.QueuedMail;
+import com.example.workflow_management_system.repository.QueuedMailRepository;
 import org.springframework.stereotype.Service;
 
+/**
+ * Builds outgoing mail and writes it to the mail queue; MailDispatcher does
+ * the SMTP work.
+ */
 @Service
 public class MailService {
 
     private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MailService.class);
 
-    private final JavaMailSender emailSender;
-    private final org.springframework.core.io.ResourceLoader resourceLoader;
+    private final QueuedMailRepository queuedMailRepository;
+    private final MailTemplateService mailTemplateService;
     @org.springframework.beans.factory.annotation.Value("${app.frontend.url}")
     private String frontendUrl;
 
@@ -29,97 +33,62 @@ public class MailService {
                 mailUsername);
     }
 
-    public MailService(JavaMailSender emailSender, org.springframework.core.io.ResourceLoader resourceLoader) {
-        this.emailSender = emailSender;
-        this.resourceLoader = resourceLoader;
+    public MailService(QueuedMailRepository queuedMailRepository, MailTemplateService mailTemplateService) {
+        this.queuedMailRepository = queuedMailRepository;
+        this.mailTemplateService = mailTemplateService;
     }
 
     public void sendMail(String to, String subject, String body) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(body);
-        emailSender.send(message);
+        queue(to, subject, body, false);
     }
 
-    @org.springframework.scheduling.annotation.Async
     public void sendInvitationEmail(String to, String name, String tenantName, String token) {
-        try {
-            jakarta.mail.internet.MimeMessage mimeMessage = emailSender.createMimeMessage();
-            org.springframework.mail.javamail.MimeMessageHelper helper = new org.springframework.mail.javamail.MimeMessageHelper(
-                    mimeMessage, "utf-8");
-
-            String inviteLink = frontendUrl + "/set-password?token=" + token;
-            String htmlMsg = loadTemplate("invitation.html");
-
-            htmlMsg = htmlMsg.replace("{{name}}", name)
-                    .replace("{{tenantName}}", tenantName)
-                    .replace("{{inviteLink}}", inviteLink);
-
-            helper.setText(htmlMsg, true);
-            helper.setTo(to);
-            helper.setSubject("You're invited to join " + tenantName);
-            helper.setFrom("noreply@workflowsystem.com");
-
-            emailSender.send(mimeMessage);
-        } catch (Exception e) {
-            // Log error but don't rethrow to avoid breaking async flow validation
-            logger.error("Failed to send invitation email to {}", to, e);
-        }
+        String htmlMsg = mailTemplateService.render("invitation", java.util.Map.of(
+                "name", java.util.Objects.toString(name, ""),
+                "tenantName", java.util.Objects.toString(tenantName, ""),
+                "inviteLink", frontendUrl + "/set-password?token=" + token));
+
+        queue(to, "You're invited to join " + tenantName, htmlMsg, true);
     }
 
-    @org.springframework.scheduling.annotation.Async
     public void sendResetPasswordEmail(String to, String name, String token) {
-        try {
-            jakarta.mail.internet.MimeMessage mimeMessage = emailSender.createMimeMessage();
-            org.springframework.mail.javamail.MimeMessageHelper helper = new org.springframework.mail.javamail.MimeMessageHelper(
-                    mimeMessage, "utf-8");
+        String htmlMsg = mailTemplateService.render("password_reset", java.util.Map.of(
+                "name", java.util.Objects.toString(name, ""),
+                "resetLink", frontendUrl + "/reset-password?token=" + token));
 
-            String resetLink = frontendUrl + "/reset-password?token=" + token;
-            String htmlMsg = loadTemplate("password_reset.html");
-
-            htmlMsg = htmlMsg.replace("{{name}}", name)
-                    .replace("{{resetLink}}", resetLink);
+        queue(to, "Reset your password", htmlMsg, true);
+    }
 
-            helper.setText(htmlMsg, true);
-            helper.setTo(to);
-            helper.setSubject("Reset your password");
-            helper.setFrom("noreply@workflowsystem.com");
+    public void sendHtmlMail(String to, String subject, String htmlBody) {
+        queue(to, subject, htmlBody, true);
+    }
 
-            emailSender.send(mimeMessage);
-        } catch (Exception e) {
-            logger.error("Failed to send password reset email to {}", to, e);
-        }
+    /**
+     * Queues one HTML mail per recipient in a single insert batch, for
+     * fan-outs.
+     */
+    public void sendHtmlMails(String subject, java.util.Map<String, String> htmlBodiesByRecipient) {
+        java.util.List<QueuedMail> mails = new java.util.ArrayList<>(htmlBodiesByRecipient.size());
+        htmlBodiesByRecipient.forEach((to, body) -> {
+            if (isAddressable(to)) {
+                mails.add(new QueuedMail(to, subject, body, true));
+            }
+        });
+        queuedMailRepository.saveAll(mails);
     }
 
-    public void sendHtmlMail(String to, String subject, String htmlBody) {
-        try {
-            logger.info("Preparing to send HTML email to: {}", to);
-            jakarta.mail.internet.MimeMessage mimeMessage = emailSender.createMimeMessage();
-            org.springframework.mail.javamail.MimeMessageHelper helper = new org.springframework.mail.javamail.MimeMessageHelper(
-                    mimeMessage, "utf-8");
-
-            helper.setText(htmlBody, true);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setFrom("noreply@workflowsystem.com");
-
-            logger.info("Dispatching email via JavaMailSender...");
-            emailSender.send(mimeMessage);
-            logger.info("Email dispatched successfully to {}", to);
-        } catch (Exception e) {
-            logger.error("Failed to send HTML email to {}", to, e);
+    // Joins the caller's transaction, so the mail is only sent if it commits
+    private void queue(String to, String subject, String body, boolean html) {
+        if (isAddressable(to)) {
+            queuedMailRepository.save(new QueuedMail(to, subject, body, html));
         }
     }
 
-    public String loadTemplate(String templateName) {
-        org.springframework.core.io.Resource resource = resourceLoader
-                .getResource("classpath:templates/email/" + templateName);
-        try (java.io.InputStream inputStream = resource.getInputStream()) {
-            return new String(inputStream.readAllBytes(), java.nio.charset.StandardCharsets.UTF_8);
-        } catch (java.io.IOException e) {
-            logger.error("Failed to load email template: {}", templateName, e);
-            return "";
+    private boolean isAddressable(String to) {
+        if (to == null || to.isBlank()) {
+            logger.warn("Dropping mail without a recipient");
+            return false;
         }
+        return true;
     }
 }
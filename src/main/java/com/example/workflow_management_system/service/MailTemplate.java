@@ -0,0 +1,100 @@
+package com.example.workflow_management_system.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Email template parsed once into literal segments and {@code {{name}}}
+ * placeholder slots. Rendering appends the segments and the HTML-escaped
+ * values straight into the caller's buffer, so no intermediate copies of the
+ * document are made. {@code {{{name}}}} inserts a value as is, for markup
+ * rendered from another template. Immutable and shared between threads.
+ */
+public final class MailTemplate {
+
+    private final String[] literals;
+    private final String[] slots;
+    private final boolean[] raw;
+    private final int literalLength;
+
+    private MailTemplate(String[] literals, String[] slots, boolean[] raw) {
+        this.literals = literals;
+        this.slots = slots;
+        this.raw = raw;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static MailTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        List<Boolean> raw = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                break;
+            }
+            boolean unescaped = source.startsWith("{{{", open);
+            String closing = unescaped ? "}}}" : "}}";
+            int nameStart = open + (unescaped ? 3 : 2);
+            int close = source.indexOf(closing, nameStart);
+            if (close < 0) {
+                break;
+            }
+            literals.add(source.substring(position, open));
+            slots.add(source.substring(nameStart, close).trim());
+            raw.add(unescaped);
+            position = close + closing.length();
+        }
+        literals.add(source.substring(position));
+
+        boolean[] rawSlots = new boolean[raw.size()];
+        for (int i = 0; i < rawSlots.length; i++) {
+            rawSlots[i] = raw.get(i);
+        }
+        return new MailTemplate(literals.toArray(new String[0]), slots.toArray(new String[0]), rawSlots);
+    }
+
+    /**
+     * Appends the template to {@code out}. Missing values render as nothing.
+     */
+    public void renderTo(StringBuilder out, Map<String, String> values) {
+        out.ensureCapacity(out.length() + literalLength + 64 * slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(slots[i]);
+            if (value == null) {
+                continue;
+            }
+            if (raw[i]) {
+                out.append(value);
+            } else {
+                escapeHtml(out, value);
+            }
+        }
+        out.append(literals[slots.length]);
+    }
+
+    public List<String> getSlots() {
+        return List.of(slots);
+    }
+
+    private static void escapeHtml(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.workflow_management_system.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles every {@code *.html} under {@code app.mail.templates.location} into
+ * a {@link MailTemplate} at startup; templates are addressed by file name
+ * without the extension. With {@code hot-reload} on (for development, usually
+ * with a {@code file:} location) a template whose file changed is recompiled
+ * on its next use, checked at most once per second.
+ */
+@Service
+public class MailTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailTemplateService.class);
+
+    private static final long RELOAD_CHECK_MILLIS = 1000;
+
+    // Render buffers above this size are not kept for reuse
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final class Entry {
+        final Resource resource;
+        volatile MailTemplate template;
+        volatile long lastModified;
+        volatile long checkedAt;
+
+        Entry(Resource resource, MailTemplate template, long lastModified) {
+            this.resource = resource;
+            this.template = template;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private final Map<String, Entry> templates = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(8192));
+    private final boolean hotReload;
+
+    public MailTemplateService(ResourcePatternResolver resourceResolver,
+            @Value("${app.mail.templates.location:classpath:templates/email/}") String location,
+            @Value("${app.mail.templates.hot-reload:false}") boolean hotReload) throws IOException {
+        this.hotReload = hotReload;
+        String base = location.endsWith("/") ? location : location + "/";
+        for (Resource resource : resourceResolver.getResources(base + "*.html")) {
+            String fileName = resource.getFilename();
+            String name = fileName.substring(0, fileName.length() - ".html".length());
+            templates.put(name, new Entry(resource, compile(resource), lastModified(resource)));
+        }
+        logger.info("Compiled {} email templates from {}", templates.size(), base);
+    }
+
+    /**
+     * Renders the named template with the given values, which are
+     * HTML-escaped.
+     */
+    public String render(String name, Map<String, String> values) {
+        MailTemplate template = getTemplate(name);
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.renderTo(buffer, values);
+        String html = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+        return html;
+    }
+
+    public MailTemplate getTemplate(String name) {
+        Entry entry = templates.get(name);
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        }
+        if (hotReload) {
+            reloadIfChanged(name, entry);
+        }
+        return entry.template;
+    }
+
+    private void reloadIfChanged(String name, Entry entry) {
+        long now = System.currentTimeMillis();
+        if (now - entry.checkedAt < RELOAD_CHECK_MILLIS) {
+            return;
+        }
+        entry.checkedAt = now;
+        long modified = lastModified(entry.resource);
+        if (modified != entry.lastModified) {
+            try {
+                entry.template = compile(entry.resource);
+                entry.lastModified = modified;
+                logger.info("Reloaded email template {}", name);
+            } catch (UncheckedIOException e) {
+                logger.warn("Failed to reload email template {}, keeping the previous version", name, e);
+            }
+        }
+    }
+
+    private static MailTemplate compile(Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            return MailTemplate.compile(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read email template " + resource, e);
+        }
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            // Not a file (e.g. inside a jar), never changes
+            return 0L;
+        }
+    }
+}
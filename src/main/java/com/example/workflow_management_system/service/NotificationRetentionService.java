@@ -0,0 +1,308 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.model.Notification;
+import com.example.workflow_management_system.model.RoleNotification;
+import com.example.workflow_management_system.repository.NotificationRepository;
+import com.example.workflow_management_system.repository.RoleNotificationReadRepository;
+import com.example.workflow_management_system.repository.RoleNotificationRepository;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the notification tables bounded. Each run removes, oldest first:
+ * <ul>
+ * <li>read personal notifications older than {@code read-days}</li>
+ * <li>a user's oldest unread personal notifications beyond
+ * {@code max-unread-per-user}</li>
+ * <li>role broadcasts older than {@code broadcast-days}, with their read
+ * markers</li>
+ * </ul>
+ * Rows are deleted by id in chunks, each in its own short transaction. The run
+ * holds a {@link JobLeaseService} lease, renewed before every chunk, so only
+ * one node purges at a time.
+ *
+ * With archiving enabled the rows of a chunk are written to a gzipped JSON
+ * lines file (one per run) and flushed before the chunk is deleted. A failed
+ * chunk may leave rows both archived and kept, to be archived again on the
+ * next run, but a row is never deleted without being archived.
+ */
+@Service
+public class NotificationRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetentionService.class);
+
+    static final String LEASE_NAME = "notification-retention";
+
+    private static final DateTimeFormatter ARCHIVE_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    record ArchivedNotification(String kind, Long id, Long userId, Long tenantId, String role, String message,
+            String type, Long requestId, boolean read,
+            @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS") LocalDateTime createdAt) {
+
+        static ArchivedNotification of(Notification n) {
+            return new ArchivedNotification("personal", n.getId(), n.getUser().getId(), n.getTenantId(), null,
+                    n.getMessage(), n.getType(), n.getRequest() != null ? n.getRequest().getId() : null, n.isRead(),
+                    n.getCreatedAt());
+        }
+
+        static ArchivedNotification of(RoleNotification n) {
+            return new ArchivedNotification("role", n.getId(), null, n.getTenantId(), n.getRole().name(),
+                    n.getMessage(), n.getType(), n.getRequest() != null ? n.getRequest().getId() : null, false,
+                    n.getCreatedAt());
+        }
+    }
+
+    private final NotificationRepository notificationRepository;
+    private final RoleNotificationRepository roleNotificationRepository;
+    private final RoleNotificationReadRepository roleNotificationReadRepository;
+    private final JobLeaseService jobLeaseService;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate chunkTransactionTemplate;
+
+    private final Counter purgedReadCounter;
+    private final Counter purgedUnreadCounter;
+    private final Counter purgedBroadcastCounter;
+    private final Counter archivedCounter;
+    private final Timer runTimer;
+
+    @Value("${app.notifications.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.notifications.retention.read-days:90}")
+    private int readDays;
+
+    @Value("${app.notifications.retention.max-unread-per-user:1000}")
+    private int maxUnreadPerUser;
+
+    @Value("${app.notifications.retention.broadcast-days:180}")
+    private int broadcastDays;
+
+    @Value("${app.notifications.retention.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.notifications.retention.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${app.notifications.retention.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${app.notifications.retention.archive.dir:data/notification-archive}")
+    private String archiveDir;
+
+    public NotificationRetentionService(NotificationRepository notificationRepository,
+            RoleNotificationRepository roleNotificationRepository,
+            RoleNotificationReadRepository roleNotificationReadRepository,
+            JobLeaseService jobLeaseService,
+            UnreadNotificationCounter unreadNotificationCounter,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.roleNotificationRepository = roleNotificationRepository;
+        this.roleNotificationReadRepository = roleNotificationReadRepository;
+        this.jobLeaseService = jobLeaseService;
+        this.unreadNotificationCounter = unreadNotificationCounter;
+        this.objectMapper = objectMapper;
+        this.chunkTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.purgedReadCounter = Counter.builder("notification_retention_purged_total").tag("kind", "read")
+                .register(meterRegistry);
+        this.purgedUnreadCounter = Counter.builder("notification_retention_purged_total").tag("kind", "unread")
+                .register(meterRegistry);
+        this.purgedBroadcastCounter = Counter.builder("notification_retention_purged_total").tag("kind", "role")
+                .register(meterRegistry);
+        this.archivedCounter = meterRegistry.counter("notification_retention_archived_total");
+        this.runTimer = meterRegistry.timer("notification_retention_duration");
+    }
+
+    // Off-peak by default
+    @Scheduled(cron = "${app.notifications.retention.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purge();
+        }
+    }
+
+    /**
+     * Runs one retention pass and returns the number of rows removed, or 0
+     * when another node holds the lease.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long purge() {
+        if (!renewLease()) {
+            logger.debug("Notification retention skipped, lease held by another node");
+            return 0;
+        }
+        return runTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            long purged = 0;
+            try (Archive archive = archiveEnabled ? new Archive() : null) {
+                purged += purgeRead(now.minusDays(readDays), archive);
+                purged += purgeUnreadOverCap(archive);
+                purged += purgeBroadcasts(now.minusDays(broadcastDays), archive);
+            } catch (RuntimeException | IOException e) {
+                logger.error("Notification retention failed after removing {} rows", purged, e);
+            } finally {
+                jobLeaseService.release(LEASE_NAME);
+            }
+            if (purged > 0) {
+                logger.info("Notification retention removed {} rows", purged);
+            }
+            return purged;
+        });
+    }
+
+    private long purgeRead(LocalDateTime cutoff, Archive archive) {
+        long purged = drain(
+                () -> notificationRepository.findReadIdsCreatedBefore(cutoff, PageRequest.of(0, chunkSize)),
+                ids -> deleteNotifications(ids, true, archive));
+        purgedReadCounter.increment(purged);
+        return purged;
+    }
+
+    private long purgeUnreadOverCap(Archive archive) {
+        long purged = 0;
+        for (Long userId : notificationRepository.findUserIdsWithUnreadOver(maxUnreadPerUser)) {
+            // The newest unread notification past the cap; it and everything older goes
+            List<Long> cutoff = notificationRepository.findUnreadIdsNewestFirst(userId,
+                    PageRequest.of(maxUnreadPerUser, 1));
+            if (cutoff.isEmpty()) {
+                continue;
+            }
+            long upToId = cutoff.get(0);
+            purged += drain(
+                    () -> notificationRepository.findUnreadIdsUpTo(userId, upToId, PageRequest.of(0, chunkSize)),
+                    ids -> {
+                        int deleted = deleteNotifications(ids, false, archive);
+                        unreadNotificationCounter.addForUser(userId, -deleted);
+                        return deleted;
+                    });
+        }
+        purgedUnreadCounter.increment(purged);
+        return purged;
+    }
+
+    // Cached unread counts that included a purged unread broadcast stay one
+    // too high until their entry expires
+    private long purgeBroadcasts(LocalDateTime cutoff, Archive archive) {
+        long purged = drain(
+                () -> roleNotificationRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, chunkSize)),
+                ids -> chunkTransactionTemplate.execute(status -> {
+                    if (archive != null) {
+                        archive.write(roleNotificationRepository.findAllById(ids).stream()
+                                .map(ArchivedNotification::of).toList());
+                    }
+                    roleNotificationReadRepository.deleteByRoleNotificationIds(ids);
+                    return roleNotificationRepository.deleteByIds(ids);
+                }));
+        purgedBroadcastCounter.increment(purged);
+        return purged;
+    }
+
+    private int deleteNotifications(List<Long> ids, boolean read, Archive archive) {
+        return chunkTransactionTemplate.execute(status -> {
+            if (archive != null) {
+                archive.write(notificationRepository.findAllById(ids).stream()
+                        .filter(n -> n.isRead() == read)
+                        .map(ArchivedNotification::of).toList());
+            }
+            return notificationRepository.deleteByIdsAndRead(ids, read);
+        });
+    }
+
+    /**
+     * Deletes the chunks returned by {@code next} until it comes back short or
+     * the lease is lost, and returns the number of rows deleted.
+     */
+    private long drain(Supplier<List<Long>> next, ToIntFunction<List<Long>> deleteChunk) {
+        long deleted = 0;
+        while (renewLease()) {
+            List<Long> ids = next.get();
+            if (!ids.isEmpty()) {
+                deleted += deleteChunk.applyAsInt(ids);
+            }
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    private boolean renewLease() {
+        return jobLeaseService.tryAcquire(LEASE_NAME, Duration.ofSeconds(leaseSeconds));
+    }
+
+    // Gzipped JSON lines, one file per run, created with the first archived row
+    private final class Archive implements Closeable {
+
+        private final Path file = Paths.get(archiveDir)
+                .resolve("notifications-" + LocalDateTime.now().format(ARCHIVE_NAME) + ".jsonl.gz");
+        private Writer writer;
+
+        void write(List<ArchivedNotification> rows) {
+            if (rows.isEmpty()) {
+                return;
+            }
+            try {
+                if (writer == null) {
+                    Files.createDirectories(file.getParent());
+                    // Appending to an existing file adds a gzip member, which readers concatenate
+                    writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(
+                            file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), true),
+                            StandardCharsets.UTF_8));
+                }
+                for (ArchivedNotification row : rows) {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                // Sync-flushes the deflater, so the rows are in the file before the delete commits
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to archive notifications to " + file, e);
+            }
+            archivedCounter.increment(rows.size());
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
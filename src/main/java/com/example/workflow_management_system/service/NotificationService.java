@@ -1,28 +1,83 @@
 package com.example.workflow_management_system.service;
 
+import com.example.workflow_management_system.dto.NotificationPush;
+import com.example.workflow_management_system.dto.NotificationReadUpToRequest;
+import com.example.workflow_management_system.dto.NotificationResponse;
 import com.example.workflow_management_system.model.Notification;
+import com.example.workflow_management_system.model.NotificationReadMark;
 import com.example.workflow_management_system.model.Request;
+import com.example.workflow_management_system.model.RoleNotification;
+import com.example.workflow_management_system.model.RoleNotificationRead;
 import com.example.workflow_management_system.model.User;
+import com.example.workflow_management_system.model.UserRole;
+import com.example.workflow_management_system.repository.NotificationReadMarkRepository;
 import com.example.workflow_management_system.repository.NotificationRepository;
+import com.example.workflow_management_system.repository.RoleNotificationReadRepository;
+import com.example.workflow_management_system.repository.RoleNotificationRepository;
 import com.example.workflow_management_system.repository.UserRepository;
 import com.example.workflow_management_system.security.SecurityUtils;
+import com.example.workflow_management_system.security.UserPrincipal;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+/**
+ * Personal notifications are stored per user. Notifications for a role are
+ * stored once per tenant and role as a {@link RoleNotification} broadcast and
+ * merged into each member's list when it is read, so a transition costs one
+ * insert however many users hold the role. Members see the broadcasts of
+ * their current role created since they joined; reading one writes a
+ * per-user read marker.
+ *
+ * Bulk operations take either an id or a point in time: personal
+ * notifications are updated or deleted with a single statement, broadcasts
+ * up to the read watermarks of {@link NotificationReadMark} count as read and
+ * read ones up to its hidden watermarks are no longer listed. Points in time
+ * compare created_at rather than a derived id bound, so rows whose ids
+ * predate time-sortable ids are handled too.
+ */
 @Service
 @Transactional
 public class NotificationService {
 
+    // Stand-ins for an unset watermark and for "no bound" in the queries
+    private static final LocalDateTime NEVER = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final NotificationRepository notificationRepository;
+    private final RoleNotificationRepository roleNotificationRepository;
+    private final RoleNotificationReadRepository roleNotificationReadRepository;
+    private final NotificationReadMarkRepository notificationReadMarkRepository;
     private final UserRepository userRepository;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final NotificationStreamService notificationStreamService;
 
-    public NotificationService(NotificationRepository notificationRepository, UserRepository userRepository) {
+    public NotificationService(NotificationRepository notificationRepository,
+            RoleNotificationRepository roleNotificationRepository,
+            RoleNotificationReadRepository roleNotificationReadRepository,
+            NotificationReadMarkRepository notificationReadMarkRepository,
+            UserRepository userRepository,
+            UnreadNotificationCounter unreadNotificationCounter,
+            NotificationStreamService notificationStreamService) {
         this.notificationRepository = notificationRepository;
+        this.roleNotificationRepository = roleNotificationRepository;
+        this.roleNotificationReadRepository = roleNotificationReadRepository;
+        this.notificationReadMarkRepository = notificationReadMarkRepository;
         this.userRepository = userRepository;
+        this.unreadNotificationCounter = unreadNotificationCounter;
+        this.notificationStreamService = notificationStreamService;
     }
 
     public void createNotification(String message, String type, Request request, User targetUser) {
@@ -30,40 +85,235 @@ public class NotificationService {
             return;
         Notification notification = new Notification(targetUser, message, type, request, request.getTenantId());
         notificationRepository.save(notification);
+        unreadNotificationCounter.addForUser(targetUser.getId(), 1);
+        notificationStreamService.sendNotification(targetUser.getId(), new NotificationPush(notification.getId(),
+                message, type, request.getId(), notification.getCreatedAt()));
     }
 
     public void createNotificationsForRole(String message, String type, Request request, String roleName) {
         try {
-            com.example.workflow_management_system.model.UserRole role = com.example.workflow_management_system.model.UserRole
-                    .valueOf(roleName);
-            List<User> users = userRepository.findByTenantIdAndRole(request.getTenantId(), role);
-            for (User user : users) {
-                createNotification(message, type, request, user);
-            }
+            broadcast(message, type, request.getTenantId(), UserRole.valueOf(roleName), request);
         } catch (IllegalArgumentException e) {
             // Ignore invalid roles
         }
     }
 
-    @Transactional(readOnly = true)
-    public List<Notification> getMyRecentNotifications(int limit) {
-        Long userId = SecurityUtils.getCurrentUser().getId();
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId, PageRequest.of(0, limit));
+    /** A role broadcast that is not about a single request, e.g. a bulk intake summary. */
+    public void createNotificationsForRole(String message, String type, Long tenantId, UserRole role) {
+        broadcast(message, type, tenantId, role, null);
     }
 
+    private void broadcast(String message, String type, Long tenantId, UserRole role, Request request) {
+        RoleNotification broadcast = roleNotificationRepository
+                .save(new RoleNotification(tenantId, role, message, type, request));
+        unreadNotificationCounter.addRoleBroadcast(tenantId, role);
+        notificationStreamService.sendRoleNotification(tenantId, role, new NotificationPush(broadcast.getId(),
+                message, type, request != null ? request.getId() : null, broadcast.getCreatedAt()));
+    }
+
+    /**
+     * Returns the newest {@code limit} notifications of the caller older than
+     * the {@code before} id (all when null), personal ones and role broadcasts
+     * merged. Pass the last id of a page as {@code before} to load the next.
+     */
     @Transactional(readOnly = true)
+    public List<NotificationResponse> getMyRecentNotifications(Long before, int limit) {
+        UserPrincipal principal = SecurityUtils.getCurrentUser();
+        long cursor = before != null ? before : Long.MAX_VALUE;
+        List<NotificationResponse> personal = notificationRepository.findInboxPage(principal.getId(), cursor,
+                PageRequest.of(0, limit));
+
+        User user = userRepository.findById(principal.getId()).orElse(null);
+        if (user == null || principal.getTenantId() == null) {
+            return personal;
+        }
+        NotificationReadMark mark = readMark(user.getId());
+        List<RoleNotification> broadcasts = roleNotificationRepository.findVisible(principal.getTenantId(),
+                user.getRole(), user.getCreatedAt(), user.getId(), cursor, mark.getReadUpToId(),
+                orNever(mark.getReadUpToAt()), mark.getHiddenUpToId(), orNever(mark.getHiddenUpToAt()),
+                PageRequest.of(0, limit));
+        if (broadcasts.isEmpty()) {
+            return personal;
+        }
+
+        Set<Long> readIds = new HashSet<>(roleNotificationReadRepository.findReadIds(user.getId(),
+                broadcasts.stream().map(RoleNotification::getId).collect(Collectors.toList())));
+        broadcasts.stream().filter(broadcast -> isBelowReadMark(broadcast, mark)).map(RoleNotification::getId)
+                .forEach(readIds::add);
+
+        // Both lists are newest first, so the newest `limit` of the union
+        // come from their heads
+        List<NotificationResponse> merged = new ArrayList<>(personal.size() + broadcasts.size());
+        merged.addAll(personal);
+        for (RoleNotification broadcast : broadcasts) {
+            merged.add(toResponse(broadcast, readIds.contains(broadcast.getId())));
+        }
+        merged.sort(Comparator.comparing(NotificationResponse::id).reversed());
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    // Answered from UnreadNotificationCounter; no transaction, so a cache hit
+    // never takes a connection
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public long getMyUnreadCount() {
-        Long userId = SecurityUtils.getCurrentUser().getId();
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        UserPrincipal principal = SecurityUtils.getCurrentUser();
+        UserRole role = principal.getRole() != null ? UserRole.valueOf(principal.getRole()) : null;
+        return unreadNotificationCounter.getUnread(principal.getId(), principal.getTenantId(), role,
+                () -> countUnread(principal));
+    }
+
+    private long countUnread(UserPrincipal principal) {
+        long unread = notificationRepository.countByUserIdAndIsReadFalse(principal.getId());
+
+        User user = userRepository.findById(principal.getId()).orElse(null);
+        if (user != null && principal.getTenantId() != null) {
+            NotificationReadMark mark = readMark(user.getId());
+            unread += roleNotificationRepository.countUnread(principal.getTenantId(), user.getRole(),
+                    user.getCreatedAt(), user.getId(), mark.getReadUpToId(), orNever(mark.getReadUpToAt()),
+                    Long.MAX_VALUE, END_OF_TIME);
+        }
+        return unread;
     }
 
     public void markAsRead(Long notificationId) {
-        Long userId = SecurityUtils.getCurrentUser().getId();
-        notificationRepository.findById(notificationId).ifPresent(notification -> {
-            if (notification.getUser().getId().equals(userId)) {
+        UserPrincipal principal = SecurityUtils.getCurrentUser();
+        Long userId = principal.getId();
+        Optional<Notification> personal = notificationRepository.findById(notificationId);
+        if (personal.isPresent()) {
+            Notification notification = personal.get();
+            if (notification.getUser().getId().equals(userId) && !notification.isRead()) {
                 notification.setRead(true);
                 notificationRepository.save(notification);
+                unreadNotificationCounter.addForUser(userId, -1);
+                notificationStreamService.sendUnreadCount(userId);
+            }
+            return;
+        }
+
+        // Ids are unique across both tables, so anything else may be a
+        // broadcast to the user's role
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null || principal.getTenantId() == null) {
+            return;
+        }
+        roleNotificationRepository.findByIdAndTenantIdAndRole(notificationId, principal.getTenantId(), user.getRole())
+                .filter(broadcast -> !broadcast.getCreatedAt().isBefore(user.getCreatedAt()))
+                .filter(broadcast -> !isBelowReadMark(broadcast, readMark(userId)))
+                .filter(broadcast -> !roleNotificationReadRepository.existsByUserIdAndRoleNotificationId(userId,
+                        broadcast.getId()))
+                .ifPresent(broadcast -> {
+                    roleNotificationReadRepository
+                            .save(new RoleNotificationRead(userId, broadcast.getId(), LocalDateTime.now()));
+                    unreadNotificationCounter.addForUser(userId, -1);
+                    notificationStreamService.sendUnreadCount(userId);
+                });
+    }
+
+    public void markAllAsRead() {
+        markReadUpTo(new NotificationReadUpToRequest(null, LocalDateTime.now()));
+    }
+
+    /**
+     * Marks every notification of the caller up to the given id, or created
+     * up to the given time, as read.
+     */
+    public void markAsReadUpTo(NotificationReadUpToRequest upTo) {
+        markReadUpTo(validate(upTo));
+    }
+
+    /**
+     * Deletes the caller's read notifications up to the given id or time (all
+     * of them when neither is given). Role broadcasts are shared, so read ones
+     * are hidden for the caller instead.
+     */
+    public int deleteRead(NotificationReadUpToRequest upTo) {
+        if (upTo == null || (upTo.id() == null && upTo.timestamp() == null)) {
+            upTo = new NotificationReadUpToRequest(null, LocalDateTime.now());
+        }
+        upTo = validate(upTo);
+        Long userId = SecurityUtils.getCurrentUser().getId();
+
+        NotificationReadMark mark = readMark(userId);
+        int deleted;
+        boolean moved;
+        if (upTo.id() != null) {
+            deleted = notificationRepository.deleteReadUpTo(userId, upTo.id());
+            moved = upTo.id() > mark.getHiddenUpToId();
+            if (moved) {
+                mark.setHiddenUpToId(upTo.id());
+            }
+        } else {
+            deleted = notificationRepository.deleteReadCreatedUpTo(userId, upTo.timestamp());
+            moved = upTo.timestamp().isAfter(orNever(mark.getHiddenUpToAt()));
+            if (moved) {
+                mark.setHiddenUpToAt(upTo.timestamp());
+            }
+        }
+        if (moved) {
+            notificationReadMarkRepository.save(mark);
+        }
+        return deleted;
+    }
+
+    // One UPDATE for personal notifications and one watermark move for the
+    // broadcasts; the unread counter is adjusted once with the total
+    private void markReadUpTo(NotificationReadUpToRequest upTo) {
+        UserPrincipal principal = SecurityUtils.getCurrentUser();
+        Long userId = principal.getId();
+        long read = upTo.id() != null
+                ? notificationRepository.markReadUpTo(userId, upTo.id())
+                : notificationRepository.markReadCreatedUpTo(userId, upTo.timestamp());
+
+        User user = userRepository.findById(userId).orElse(null);
+        if (user != null && principal.getTenantId() != null) {
+            NotificationReadMark mark = readMark(userId);
+            boolean moved = upTo.id() != null
+                    ? upTo.id() > mark.getReadUpToId()
+                    : upTo.timestamp().isAfter(orNever(mark.getReadUpToAt()));
+            if (moved) {
+                read += roleNotificationRepository.countUnread(principal.getTenantId(), user.getRole(),
+                        user.getCreatedAt(), userId, mark.getReadUpToId(), orNever(mark.getReadUpToAt()),
+                        upTo.id() != null ? upTo.id() : Long.MAX_VALUE,
+                        upTo.timestamp() != null ? upTo.timestamp() : END_OF_TIME);
+                if (upTo.id() != null) {
+                    mark.setReadUpToId(upTo.id());
+                } else {
+                    mark.setReadUpToAt(upTo.timestamp());
+                }
+                notificationReadMarkRepository.save(mark);
             }
-        });
+        }
+
+        if (read > 0) {
+            unreadNotificationCounter.addForUser(userId, -read);
+            notificationStreamService.sendUnreadCount(userId);
+        }
+    }
+
+    private static NotificationReadUpToRequest validate(NotificationReadUpToRequest upTo) {
+        if (upTo == null || (upTo.id() == null) == (upTo.timestamp() == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Provide either id or timestamp");
+        }
+        return upTo;
+    }
+
+    private static boolean isBelowReadMark(RoleNotification broadcast, NotificationReadMark mark) {
+        return broadcast.getId() <= mark.getReadUpToId()
+                || !broadcast.getCreatedAt().isAfter(orNever(mark.getReadUpToAt()));
+    }
+
+    private static LocalDateTime orNever(LocalDateTime watermark) {
+        return watermark != null ? watermark : NEVER;
+    }
+
+    private NotificationReadMark readMark(Long userId) {
+        return notificationReadMarkRepository.findById(userId).orElseGet(() -> new NotificationReadMark(userId));
+    }
+
+    // Same shape the API has always returned; never persisted
+    private NotificationResponse toResponse(RoleNotification broadcast, boolean read) {
+        return new NotificationResponse(broadcast.getId(), broadcast.getMessage(), broadcast.getType(),
+                broadcast.getRequest() != null ? broadcast.getRequest().getId() : null, read,
+                broadcast.getCreatedAt());
     }
 }
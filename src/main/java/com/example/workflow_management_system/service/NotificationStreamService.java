@@ -0,0 +1,306 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.dto.NotificationPush;
+import com.example.workflow_management_system.dto.RequestUpdatePush;
+import com.example.workflow_management_system.event.RequestUpdatedEvent;
+import com.example.workflow_management_system.model.UserRole;
+import com.example.workflow_management_system.security.UserPrincipal;
+import com.example.workflow_management_system.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes notifications, unread counts and request updates to the users
+ * connected to /api/notifications/stream (server-sent events).
+ *
+ * Connections are registered per user and per tenant in concurrent maps.
+ * Publishing only offers the event to each connection's bounded queue and
+ * never blocks; the socket writes happen on the stream executor, at most one
+ * drain per connection at a time. A client too slow to keep its queue from
+ * filling up is disconnected and reloads its state when it reconnects.
+ *
+ * Events reach the connections held by this node only.
+ */
+@Service
+public class NotificationStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamService.class);
+
+    static final String EVENT_NOTIFICATION = "notification";
+    static final String EVENT_UNREAD_COUNT = "unread-count";
+    static final String EVENT_REQUEST_UPDATED = "request-updated";
+
+    private static final class Connection {
+        final SseEmitter emitter;
+        final Long userId;
+        final Long tenantId;
+        final UserRole role;
+        final ArrayBlockingQueue<SseEmitter.SseEventBuilder> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        Connection(SseEmitter emitter, Long userId, Long tenantId, UserRole role, int bufferSize) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.tenantId = tenantId;
+            this.role = role;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Set<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Connection>> connectionsByTenant = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final Executor streamExecutor;
+
+    private final Counter sentCounter;
+    private final Counter overflowCounter;
+
+    @Value("${app.notifications.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${app.notifications.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${app.notifications.stream.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    public NotificationStreamService(UnreadNotificationCounter unreadNotificationCounter,
+            @Qualifier("streamExecutor") Executor streamExecutor,
+            MeterRegistry meterRegistry) {
+        this.unreadNotificationCounter = unreadNotificationCounter;
+        this.streamExecutor = streamExecutor;
+
+        this.sentCounter = meterRegistry.counter("notification_stream_events_sent_total");
+        this.overflowCounter = meterRegistry.counter("notification_stream_overflow_disconnects_total");
+        Gauge.builder("notification_stream_connections", connectionCount, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for the user. The first event carries the current unread
+     * count so the client does not need a separate request for it.
+     */
+    public SseEmitter connect(UserPrincipal principal, long unreadCount) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        UserRole role = principal.getRole() != null ? UserRole.valueOf(principal.getRole()) : null;
+        Connection connection = new Connection(emitter, principal.getId(), principal.getTenantId(), role, bufferSize);
+
+        // Checked and registered in one step, so concurrent connects of a
+        // user cannot all pass the limit; unregister frees the slot
+        if (!tryAddTo(connectionsByUser, connection.userId, connection, maxConnectionsPerUser)) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many notification streams open");
+        }
+        emitter.onCompletion(() -> unregister(connection));
+        emitter.onTimeout(() -> close(connection));
+        emitter.onError(e -> close(connection));
+
+        if (connection.tenantId != null) {
+            addTo(connectionsByTenant, connection.tenantId, connection);
+        }
+        connectionCount.incrementAndGet();
+
+        enqueue(connection, event(EVENT_UNREAD_COUNT, unreadCount));
+        return emitter;
+    }
+
+    /** Pushes a new personal notification to the user once the transaction commits. */
+    public void sendNotification(Long userId, NotificationPush notification) {
+        TransactionCallbacks.afterCommit(() -> {
+            Set<Connection> connections = connectionsByUser.get(userId);
+            if (connections != null) {
+                long unread = unreadNotificationCounter.getCachedUnread(userId);
+                for (Connection connection : connections) {
+                    enqueue(connection, event(EVENT_NOTIFICATION, notification));
+                    if (unread >= 0) {
+                        enqueue(connection, event(EVENT_UNREAD_COUNT, unread));
+                    }
+                }
+            }
+        });
+    }
+
+    /** Pushes a role broadcast to the connected members of the role once the transaction commits. */
+    public void sendRoleNotification(Long tenantId, UserRole role, NotificationPush notification) {
+        TransactionCallbacks.afterCommit(() -> {
+            Set<Connection> connections = connectionsByTenant.get(tenantId);
+            if (connections != null) {
+                for (Connection connection : connections) {
+                    if (connection.role == role) {
+                        enqueue(connection, event(EVENT_NOTIFICATION, notification));
+                        long unread = unreadNotificationCounter.getCachedUnread(connection.userId);
+                        if (unread >= 0) {
+                            enqueue(connection, event(EVENT_UNREAD_COUNT, unread));
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /** Pushes the user's cached unread count once the transaction commits, e.g. after a read. */
+    public void sendUnreadCount(Long userId) {
+        TransactionCallbacks.afterCommit(() -> {
+            Set<Connection> connections = connectionsByUser.get(userId);
+            long unread = unreadNotificationCounter.getCachedUnread(userId);
+            if (connections != null && unread >= 0) {
+                for (Connection connection : connections) {
+                    enqueue(connection, event(EVENT_UNREAD_COUNT, unread));
+                }
+            }
+        });
+    }
+
+    // Relayed from the outbox after the transition committed
+    @EventListener
+    public void onRequestUpdated(RequestUpdatedEvent event) {
+        RequestUpdatePush update = new RequestUpdatePush(event.getRequestId(), event.getStatus(),
+                event.getCurrentStep());
+        Set<Connection> connections = connectionsByTenant.get(event.getTenantId());
+        if (connections == null) {
+            return;
+        }
+        for (Connection connection : connections) {
+            if (connection.userId.equals(event.getOwnerId())
+                    || (event.getApproverRole() != null && connection.role == event.getApproverRole())) {
+                enqueue(connection, event(EVENT_REQUEST_UPDATED, update));
+            }
+        }
+    }
+
+    // Keeps idle connections from being cut by proxies and detects dead clients
+    @Scheduled(fixedRateString = "${app.notifications.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Set<Connection> connections : connectionsByUser.values()) {
+            for (Connection connection : connections) {
+                enqueue(connection, SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    private SseEmitter.SseEventBuilder event(String name, Object data) {
+        return SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+    }
+
+    private void enqueue(Connection connection, SseEmitter.SseEventBuilder event) {
+        if (connection.closed) {
+            return;
+        }
+        if (!connection.queue.offer(event)) {
+            overflowCounter.increment();
+            logger.warn("Notification stream of user {} fell behind, disconnecting", connection.userId);
+            close(connection);
+            return;
+        }
+        scheduleDrain(connection);
+    }
+
+    private void scheduleDrain(Connection connection) {
+        if (!connection.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            streamExecutor.execute(() -> drain(connection));
+        } catch (RejectedExecutionException e) {
+            connection.draining.set(false);
+            close(connection);
+        }
+    }
+
+    private void drain(Connection connection) {
+        SseEmitter.SseEventBuilder event;
+        try {
+            while (!connection.closed && (event = connection.queue.poll()) != null) {
+                connection.emitter.send(event);
+                sentCounter.increment();
+            }
+        } catch (Exception e) {
+            // Client went away
+            close(connection);
+            return;
+        } finally {
+            connection.draining.set(false);
+        }
+        if (!connection.queue.isEmpty()) {
+            scheduleDrain(connection);
+        }
+    }
+
+    private void close(Connection connection) {
+        if (connection.closed) {
+            return;
+        }
+        connection.closed = true;
+        unregister(connection);
+        connection.queue.clear();
+        try {
+            connection.emitter.complete();
+        } catch (Exception e) {
+            // Already completed
+        }
+    }
+
+    private void unregister(Connection connection) {
+        connection.closed = true;
+        boolean removed = removeFrom(connectionsByUser, connection.userId, connection);
+        if (connection.tenantId != null) {
+            removeFrom(connectionsByTenant, connection.tenantId, connection);
+        }
+        if (removed) {
+            connectionCount.decrementAndGet();
+        }
+    }
+
+    // Inside compute() so a concurrent removal cannot drop the set we add to
+    private static void addTo(ConcurrentHashMap<Long, Set<Connection>> index, Long key, Connection connection) {
+        index.compute(key, (k, connections) -> {
+            Set<Connection> target = connections != null ? connections : ConcurrentHashMap.newKeySet();
+            target.add(connection);
+            return target;
+        });
+    }
+
+    private static boolean tryAddTo(ConcurrentHashMap<Long, Set<Connection>> index, Long key,
+            Connection connection, int limit) {
+        boolean[] added = { false };
+        index.compute(key, (k, connections) -> {
+            Set<Connection> target = connections != null ? connections : ConcurrentHashMap.newKeySet();
+            if (target.size() < limit) {
+                added[0] = target.add(connection);
+            }
+            return target.isEmpty() ? null : target;
+        });
+        return added[0];
+    }
+
+    private static boolean removeFrom(ConcurrentHashMap<Long, Set<Connection>> index, Long key,
+            Connection connection) {
+        boolean[] removed = { false };
+        index.computeIfPresent(key, (k, connections) -> {
+            removed[0] = connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+        return removed[0];
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.model.OutboxEvent;
+import com.example.workflow_management_system.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes committed outbox rows to the application's event listeners in
+ * batches and deletes the rows whose listeners all returned. Listeners run
+ * synchronously on the relay thread (or hand the event to the event journal
+ * themselves), so a returned publish means the event was handled. One node
+ * at a time relays, guarded by a {@link JobLeaseService} lease, so events
+ * keep their order. Rows survive a restart until they have been published; a
+ * crash between publishing a batch and deleting it publishes that batch again
+ * (at-least-once).
+ *
+ * A row whose publish threw stays, with its attempt count and error, and is
+ * retried after an exponential backoff from {@code app.outbox.retry-backoff-ms}
+ * (up to ten minutes), behind the rows that were due. After
+ * {@code app.outbox.max-attempts} it is left in the table for inspection and
+ * no longer relayed.
+ *
+ * outbox_lag_seconds is the age of the oldest row waiting to be relayed, as
+ * seen by the node holding the lease.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final long MAX_RETRY_BACKOFF_MS = 600_000L;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    static final String LEASE_NAME = "outbox-relay";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JobLeaseService jobLeaseService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate batchTransactionTemplate;
+
+    private final Counter dispatchedCounter;
+    private final Counter failedCounter;
+    private final Counter deadCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    @Value("${app.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.outbox.lease-seconds:30}")
+    private long leaseSeconds;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    // Only touched by the scheduler thread running relay()
+    private long leaseRenewAt;
+    private volatile boolean leaseHeld;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+            JobLeaseService jobLeaseService,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.jobLeaseService = jobLeaseService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.batchTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.dispatchedCounter = meterRegistry.counter("outbox_events_dispatched_total");
+        this.failedCounter = meterRegistry.counter("outbox_events_failed_total");
+        this.deadCounter = meterRegistry.counter("outbox_events_dead_total");
+        this.batchTimer = meterRegistry.timer("outbox_relay_batch_duration");
+        Gauge.builder("outbox_lag_seconds", lagMillis, v -> v.get() / 1000.0).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:200}")
+    public void relay() {
+        if (!holdLease()) {
+            return;
+        }
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize && holdLease());
+    }
+
+    /**
+     * Publishes the oldest batch of due outbox rows, deletes the ones that
+     * were handled and reschedules the others. Returns the number of rows
+     * relayed.
+     */
+    int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = batchTransactionTemplate.execute(
+                status -> outboxEventRepository.findDue(maxAttempts, now, PageRequest.of(0, batchSize)));
+        if (batch == null || batch.isEmpty()) {
+            lagMillis.set(0L);
+            return 0;
+        }
+        lagMillis.set(Math.max(0L, Duration.between(batch.get(0).getCreatedAt(), now).toMillis()));
+
+        return batchTimer.record(() -> {
+            List<Long> handled = new ArrayList<>(batch.size());
+            Map<OutboxEvent, Exception> failed = new LinkedHashMap<>();
+            for (OutboxEvent row : batch) {
+                Exception error = dispatch(row);
+                if (error == null) {
+                    handled.add(row.getId());
+                } else {
+                    failed.put(row, error);
+                }
+            }
+            batchTransactionTemplate.executeWithoutResult(status -> {
+                if (!handled.isEmpty()) {
+                    outboxEventRepository.deleteByIds(handled);
+                }
+                failed.forEach(this::reschedule);
+            });
+            return batch.size();
+        });
+    }
+
+    // Returns the failure, or null once every listener has returned
+    private Exception dispatch(OutboxEvent row) {
+        try {
+            Class<?> eventClass = OutboxService.EventType.valueOf(row.getEventType()).getEventClass();
+            eventPublisher.publishEvent(objectMapper.readValue(row.getPayload(), eventClass));
+            dispatchedCounter.increment();
+            return null;
+        } catch (Exception e) {
+            // A row that cannot be published must not block the ones behind it
+            failedCounter.increment();
+            logger.error("Failed to relay outbox event {} ({}), attempt {}", row.getId(), row.getEventType(),
+                    row.getAttempts() + 1, e);
+            return e;
+        }
+    }
+
+    private void reschedule(OutboxEvent row, Exception error) {
+        int attempts = row.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            deadCounter.increment();
+            logger.error("Giving up on outbox event {} ({}) after {} attempts", row.getId(), row.getEventType(),
+                    attempts);
+        }
+        long backoff = Math.min(retryBackoffMs << Math.min(attempts - 1, 20), MAX_RETRY_BACKOFF_MS);
+        String message = String.valueOf(error.getMessage());
+        outboxEventRepository.markFailed(row.getId(), attempts, LocalDateTime.now().plusNanos(backoff * 1_000_000L),
+                message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+    }
+
+    private boolean holdLease() {
+        long now = System.currentTimeMillis();
+        if (now < leaseRenewAt) {
+            return leaseHeld;
+        }
+        leaseHeld = jobLeaseService.tryAcquire(LEASE_NAME, Duration.ofSeconds(leaseSeconds));
+        // Renew at half the lease time; while another node relays, check back
+        // at the same pace instead of on every poll
+        leaseRenewAt = now + leaseSeconds * 500;
+        if (!leaseHeld) {
+            lagMillis.set(0L);
+        }
+        return leaseHeld;
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        if (leaseHeld) {
+            leaseHeld = false;
+            jobLeaseService.release(LEASE_NAME);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.event.AssignmentsCreatedEvent;
+import com.example.workflow_management_system.event.AuditEvent;
+import com.example.workflow_management_system.event.NotificationEvent;
+import com.example.workflow_management_system.event.RequestUpdatedEvent;
+import com.example.workflow_management_system.event.RequestsBulkCreatedEvent;
+import com.example.workflow_management_system.model.OutboxEvent;
+import com.example.workflow_management_system.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes transition side effects to the outbox table in the caller's
+ * transaction instead of publishing them right away, so nothing is sent for
+ * a transition that rolls back. {@link OutboxRelay} publishes the rows to the
+ * regular listeners after commit.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    public enum EventType {
+        AUDIT(AuditEvent.class),
+        NOTIFICATION(NotificationEvent.class),
+        ASSIGNMENTS_CREATED(AssignmentsCreatedEvent.class),
+        REQUEST_UPDATED(RequestUpdatedEvent.class),
+        REQUESTS_BULK_CREATED(RequestsBulkCreatedEvent.class);
+
+        private final Class<?> eventClass;
+
+        EventType(Class<?> eventClass) {
+            this.eventClass = eventClass;
+        }
+
+        public Class<?> getEventClass() {
+            return eventClass;
+        }
+    }
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void append(AuditEvent event) {
+        append(EventType.AUDIT, event, event.getTenantId());
+    }
+
+    public void append(NotificationEvent event, Long tenantId) {
+        append(EventType.NOTIFICATION, event, tenantId);
+    }
+
+    public void append(AssignmentsCreatedEvent event) {
+        append(EventType.ASSIGNMENTS_CREATED, event, event.getTenantId());
+    }
+
+    public void append(RequestUpdatedEvent event) {
+        append(EventType.REQUEST_UPDATED, event, event.getTenantId());
+    }
+
+    public void append(RequestsBulkCreatedEvent event) {
+        append(EventType.REQUESTS_BULK_CREATED, event, event.getTenantId());
+    }
+
+    private void append(EventType type, Object event, Long tenantId) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            // Losing a side effect silently is worse than failing the transition
+            throw new IllegalStateException("Failed to serialize " + type + " outbox event", e);
+        }
+        // Inserted with the transition's own flush, batched with its other rows
+        outboxEventRepository.save(new OutboxEvent(type.name(), payload, tenantId, LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.model.AssignmentStatus;
+import com.example.workflow_management_system.repository.RequestAssignmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Marks ASSIGNED assignments past their due date as OVERDUE. Work is
+ * partitioned by tenant and each partition is guarded by a {@link JobLeaseService}
+ * lease, so with several nodes every tenant is swept by exactly one of them.
+ * Within a tenant rows are flipped in chunks, each chunk in its own short
+ * transaction with one audit entry, so a backlog never turns into one huge
+ * transaction.
+ *
+ * {@link AssignmentDueTimerService} fires most transitions as they come due;
+ * this sweep is the low-frequency reconciliation that catches anything the
+ * timers missed, e.g. across restarts.
+ */
+@Service
+public class OverdueAssignmentSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueAssignmentSweeper.class);
+
+    static final String LEASE_PREFIX = "overdue-sweep:tenant:";
+
+    private record ChunkResult(int found, int updated) {
+    }
+
+    private final RequestAssignmentRepository requestAssignmentRepository;
+    private final JobLeaseService jobLeaseService;
+    private final AuditLogService auditLogService;
+    private final TransactionTemplate chunkTransactionTemplate;
+
+    private final Counter markedCounter;
+    private final Counter skippedPartitionsCounter;
+    private final Timer sweepTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    @Value("${app.assignments.overdue-sweep.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.assignments.overdue-sweep.lease-seconds:300}")
+    private long leaseSeconds;
+
+    public OverdueAssignmentSweeper(RequestAssignmentRepository requestAssignmentRepository,
+            JobLeaseService jobLeaseService,
+            AuditLogService auditLogService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.requestAssignmentRepository = requestAssignmentRepository;
+        this.jobLeaseService = jobLeaseService;
+        this.auditLogService = auditLogService;
+        this.chunkTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.markedCounter = meterRegistry.counter("assignments_overdue_marked_total");
+        this.skippedPartitionsCounter = meterRegistry.counter("assignments_overdue_sweep_partitions_skipped_total");
+        this.sweepTimer = meterRegistry.timer("assignments_overdue_sweep_duration");
+        // Age of the oldest assignment still waiting to be marked when the sweep started
+        meterRegistry.gauge("assignments_overdue_sweep_lag_seconds", lagSeconds);
+    }
+
+    /**
+     * Runs one sweep over every tenant with overdue work and returns the
+     * number of assignments this node marked.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int sweep() {
+        return sweepTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+
+            LocalDateTime oldest = requestAssignmentRepository.findOldestDueAt(AssignmentStatus.ASSIGNED, now);
+            lagSeconds.set(oldest != null ? Duration.between(oldest, now).getSeconds() : 0L);
+
+            List<Long> tenantIds = requestAssignmentRepository
+                    .findTenantIdsByStatusAndDueAtBefore(AssignmentStatus.ASSIGNED, now);
+
+            int marked = 0;
+            for (Long tenantId : tenantIds) {
+                String lease = LEASE_PREFIX + tenantId;
+                if (!jobLeaseService.tryAcquire(lease, Duration.ofSeconds(leaseSeconds))) {
+                    skippedPartitionsCounter.increment();
+                    continue;
+                }
+                try {
+                    marked += sweepTenant(tenantId, now, lease);
+                } catch (RuntimeException e) {
+                    logger.error("Overdue sweep failed for tenant {}", tenantId, e);
+                } finally {
+                    jobLeaseService.release(lease);
+                }
+            }
+
+            if (marked > 0) {
+                logger.info("Marked {} assignments overdue across {} tenants", marked, tenantIds.size());
+            }
+            return marked;
+        });
+    }
+
+    private int sweepTenant(Long tenantId, LocalDateTime now, String lease) {
+        int marked = 0;
+        ChunkResult chunk;
+        do {
+            chunk = markChunk(tenantId, now);
+            marked += chunk.updated();
+
+            // Extend the lease between chunks; stop if another node took it over
+        } while (chunk.found() == chunkSize
+                && jobLeaseService.tryAcquire(lease, Duration.ofSeconds(leaseSeconds)));
+        return marked;
+    }
+
+    private ChunkResult markChunk(Long tenantId, LocalDateTime now) {
+        List<Long> ids = requestAssignmentRepository.findIdsByTenantIdAndStatusAndDueAtBefore(tenantId,
+                AssignmentStatus.ASSIGNED, now, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return new ChunkResult(0, 0);
+        }
+        return new ChunkResult(ids.size(), markOverdue(tenantId, ids));
+    }
+
+    /**
+     * Moves the given assignments of one tenant from ASSIGNED to OVERDUE in
+     * its own transaction and writes one audit entry for them. Rows that are
+     * no longer ASSIGNED are left alone, so callers may pass stale ids.
+     * Returns the number of rows changed.
+     */
+    public int markOverdue(Long tenantId, List<Long> ids) {
+        Integer updated = chunkTransactionTemplate.execute(status -> {
+            int count = requestAssignmentRepository.updateStatusForIds(ids, AssignmentStatus.ASSIGNED,
+                    AssignmentStatus.OVERDUE, LocalDateTime.now());
+            if (count > 0) {
+                Map<String, Object> details = new HashMap<>();
+                details.put("assignmentIds", ids);
+                details.put("count", count);
+                details.put("status", AssignmentStatus.OVERDUE);
+
+                // Performed by SYSTEM, one entry per chunk
+                auditLogService.logEvent("REQUEST_ASSIGNMENT", String.valueOf(tenantId), "ASSIGNMENTS_OVERDUE",
+                        "SYSTEM", tenantId, details);
+            }
+            return count;
+        });
+        markedCounter.increment(updated);
+        return updated;
+    }
+}
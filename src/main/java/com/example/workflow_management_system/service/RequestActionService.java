@@ -11,39 +11,38 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class RequestActionService {
 
-    @org.springframework.beans.factory.annotation.Autowired
-    private org.springframework.context.ApplicationEventPublisher eventPublisher;
-
     private final RequestActionRepository requestActionRepository;
     private final RequestRepository requestRepository;
-    private final WorkflowStepRepository workflowStepRepository;
     private final RequestAssignmentService requestAssignmentService;
     private final UserRepository userRepository;
     private final AuditLogService auditLogService;
+    private final WorkflowGraphService workflowGraphService;
+    private final RequestTransitionExecutor requestTransitionExecutor;
+    private final OutboxService outboxService;
 
     public RequestActionService(RequestActionRepository requestActionRepository,
             RequestRepository requestRepository,
-            WorkflowStepRepository workflowStepRepository,
             UserRepository userRepository,
             RequestAssignmentService requestAssignmentService,
             AuditLogService auditLogService,
-            org.springframework.context.ApplicationEventPublisher eventPublisher) {
+            WorkflowGraphService workflowGraphService,
+            RequestTransitionExecutor requestTransitionExecutor,
+            OutboxService outboxService) {
         this.requestActionRepository = requestActionRepository;
         this.requestRepository = requestRepository;
-        this.workflowStepRepository = workflowStepRepository;
         this.userRepository = userRepository;
         this.requestAssignmentService = requestAssignmentService;
         this.auditLogService = auditLogService;
-        this.eventPublisher = eventPublisher;
+        this.workflowGraphService = workflowGraphService;
+        this.requestTransitionExecutor = requestTransitionExecutor;
+        this.outboxService = outboxService;
     }
 
     public RequestActionResponse createAction(Long requestId, RequestActionCreateRequest createRequest) {
@@ -62,8 +61,15 @@ public class RequestActionService {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Current step is null");
         }
 
+        WorkflowGraph graph = workflowGraphService.getGraph(request.getWorkflow().getId());
+        WorkflowGraph.StepNode currentNode = graph.getStep(currentStep.getId());
+        if (currentNode == null) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Current step is not part of the workflow");
+        }
+
         if (createRequest.actionType() != ActionType.AUTO_APPROVE) {
-            if (!hasPermission(currentUser.getRole(), currentStep.getRequiredRole())) {
+            if (!hasPermission(currentUser.getRole(), currentNode.requiredRole())) {
                 throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Insufficient permissions for this step");
             }
         }
@@ -78,84 +84,53 @@ public class RequestActionService {
                 // Log warning but proceed? Or fail?
                 // Proceed as assignment might not exist if it was role-based purely or claimed.
             }
+        } else {
+            // Nobody decides an auto-approved step, release its approvers
+            requestAssignmentService.closeOpenAssignments(request);
         }
 
-        RequestAction action = new RequestAction();
-        action.setRequest(request);
-        action.setActionBy(actionByUser);
-        action.setActionType(createRequest.actionType());
-        action.setFromStep(currentStep);
-        action.setComments(createRequest.comments());
-        action.setTenantId(tenantId);
-        action.setActionTime(LocalDateTime.now());
-
-        WorkflowStep nextStep = null;
-
-        if (createRequest.actionType() == ActionType.APPROVE || createRequest.actionType() == ActionType.AUTO_APPROVE) {
-            Optional<WorkflowStep> nextStepOpt = workflowStepRepository
-                    .findFirstByWorkflowIdAndStepOrderGreaterThanOrderByStepOrderAsc(
-                            request.getWorkflow().getId(), currentStep.getStepOrder());
-
-            if (nextStepOpt.isPresent()) {
-                nextStep = nextStepOpt.get();
-                request.setCurrentStep(nextStep);
-                requestAssignmentService.createAssignmentsForStep(request, nextStep);
-            } else {
-                request.setStatus(RequestStatus.COMPLETED);
-            }
-        } else if (createRequest.actionType() == ActionType.REJECT) {
-            request.setStatus(RequestStatus.REJECTED);
+        RequestTransitionExecutor.TransitionResult result;
+        if (createRequest.actionType() == ActionType.REJECT) {
+            result = requestTransitionExecutor.reject(request, currentNode, actionByUser, createRequest.comments());
+        } else {
+            result = requestTransitionExecutor.approve(request, graph, currentNode, actionByUser,
+                    createRequest.actionType(), createRequest.comments(), currentUser.getTenantName());
         }
 
-        action.setToStep(nextStep);
-
-        RequestAction savedAction = requestActionRepository.save(action);
-        requestRepository.save(request);
+        RequestAction savedAction = result.actions().get(0);
 
         java.util.Map<String, Object> details = new java.util.HashMap<>();
         details.put("requestId", request.getId());
         details.put("actionType", savedAction.getActionType());
-        details.put("fromStep", savedAction.getFromStep().getStepName());
+        details.put("fromStep", currentNode.stepName());
         if (savedAction.getToStep() != null) {
-            details.put("toStep", savedAction.getToStep().getStepName());
+            details.put("toStep", graph.getStep(savedAction.getToStep().getId()).stepName());
+        }
+        auditLogService.logEventOnCommit("REQUEST_ACTION", String.valueOf(savedAction.getId()),
+                "REQUEST_ACTION_CREATED", details);
+
+        // Notify the requester once the transition commits (relayed from the
+        // outbox)
+        com.example.workflow_management_system.event.NotificationType type = null;
+        if (savedAction.getActionType() == ActionType.APPROVE
+                || savedAction.getActionType() == ActionType.AUTO_APPROVE) {
+            type = com.example.workflow_management_system.event.NotificationType.REQUEST_APPROVED;
+        } else if (savedAction.getActionType() == ActionType.REJECT) {
+            type = com.example.workflow_management_system.event.NotificationType.REQUEST_REJECTED;
         }
-        auditLogService.logEvent("REQUEST_ACTION", String.valueOf(savedAction.getId()), "REQUEST_ACTION_CREATED",
-                details);
-
-        // Publish Notification Event
-        if (savedAction.getActionType() == ActionType.APPROVE || savedAction.getActionType() == ActionType.AUTO_APPROVE
-                || savedAction.getActionType() == ActionType.REJECT) {
-            com.example.workflow_management_system.event.NotificationType type = null;
-            if (savedAction.getActionType() == ActionType.APPROVE
-                    || savedAction.getActionType() == ActionType.AUTO_APPROVE) {
-                type = com.example.workflow_management_system.event.NotificationType.REQUEST_APPROVED;
-            } else if (savedAction.getActionType() == ActionType.REJECT) {
-                type = com.example.workflow_management_system.event.NotificationType.REQUEST_REJECTED;
-            }
 
-            if (type != null) {
-                // Get Tenant Name logic if needed, or query simplified repo, or assume
-                // accessible.
-                // Request has tenantId, but not name directly loaded unless fetched.
-                // Request entity -> Tenant lazy loaded?
-                // request.getWorkflow().getTenant() might be available?
-                // Let's check existing code usage.
-                String tenantName = "System"; // Fallback
-                try {
-                    tenantName = request.getWorkflow().getTenant().getName();
-                } catch (Exception e) {
-                }
-
-                java.util.Map<String, Object> meta = new java.util.HashMap<>();
-                meta.put("requestId", request.getId());
-
-                com.example.workflow_management_system.event.NotificationEvent event = new com.example.workflow_management_system.event.NotificationEvent(
-                        type,
-                        request.getCreatedBy().getEmail(),
-                        tenantName,
-                        meta);
-                eventPublisher.publishEvent(event);
-            }
+        if (type != null) {
+            // Taken from the principal, no tenant lookup inside the transaction
+            String tenantName = currentUser.getTenantName() != null ? currentUser.getTenantName() : "System";
+
+            java.util.Map<String, Object> meta = new java.util.HashMap<>();
+            meta.put("requestId", request.getId());
+
+            outboxService.append(new com.example.workflow_management_system.event.NotificationEvent(
+                    type,
+                    request.getCreatedBy().getEmail(),
+                    tenantName,
+                    meta), tenantId);
         }
 
         return mapToResponse(savedAction);
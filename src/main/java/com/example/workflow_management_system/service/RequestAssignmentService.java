@@ -18,6 +18,10 @@ import java.util.stream.Collectors;
 @Transactional
 public class RequestAssignmentService {
 
+    // Assignments that still expect a decision from their assignee
+    private static final List<AssignmentStatus> OPEN_STATUSES = List.of(AssignmentStatus.ASSIGNED,
+            AssignmentStatus.OVERDUE);
+
     @org.springframework.beans.factory.annotation.Autowired
     private org.springframework.context.ApplicationEventPublisher eventPublisher;
 
@@ -25,124 +29,135 @@ public class RequestAssignmentService {
     private final UserRepository userRepository;
     private final AuditLogService auditLogService;
     private final com.example.workflow_management_system.repository.TenantRepository tenantRepository;
+    private final OutboxService outboxService;
 
     public RequestAssignmentService(RequestAssignmentRepository requestAssignmentRepository,
             UserRepository userRepository,
             AuditLogService auditLogService,
             com.example.workflow_management_system.repository.TenantRepository tenantRepository,
-            org.springframework.context.ApplicationEventPublisher eventPublisher) {
+            org.springframework.context.ApplicationEventPublisher eventPublisher,
+            OutboxService outboxService) {
         this.requestAssignmentRepository = requestAssignmentRepository;
         this.userRepository = userRepository;
         this.auditLogService = auditLogService;
         this.tenantRepository = tenantRepository;
         this.eventPublisher = eventPublisher;
+        this.outboxService = outboxService;
     }
 
-    public void createAssignment(Request request, User assignee) {
-        if (request.getStatus() == RequestStatus.COMPLETED || request.getStatus() == RequestStatus.REJECTED) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT,
-                    "Cannot create assignment for a terminal request (COMPLETED/REJECTED).");
-        }
-
-        RequestAssignment assignment = new RequestAssignment(
-                request,
-                assignee,
-                LocalDateTime.now(),
-                LocalDateTime.now().plusDays(2), // Default 2 days due
-                AssignmentStatus.ASSIGNED,
-                request.getTenantId());
-        RequestAssignment saved = requestAssignmentRepository.save(assignment);
-
-        // Fetch Tenant Name for notification
-        String tenantName = "Workflow System";
-        try {
-            tenantName = tenantRepository.findById(request.getTenantId())
-                    .map(t -> t.getName()).orElse("Workflow System");
-        } catch (Exception e) {
-        }
+    /**
+     * Completes the acting user's open assignment on the request and cancels
+     * the open assignments of the other approvers of the same step. Both are
+     * single conditional updates on (request, user, status), so the cost does
+     * not grow with the user's assignment history.
+     */
+    public void completeAssignment(Request request, User user) {
+        LocalDateTime now = LocalDateTime.now();
+        int completed = requestAssignmentRepository.updateStatusForUser(request.getId(), user.getId(),
+                request.getTenantId(), OPEN_STATUSES, AssignmentStatus.COMPLETED, now);
 
-        java.util.Map<String, Object> metadata = new java.util.HashMap<>();
-        metadata.put("requestId", saved.getRequest().getId());
-        metadata.put("assigneeName", assignee.getUsername());
+        if (completed > 0) {
+            java.util.Map<String, Object> details = new java.util.HashMap<>();
+            details.put("requestId", request.getId());
+            details.put("assignedTo", user.getUsername());
+            details.put("status", AssignmentStatus.COMPLETED);
 
-        com.example.workflow_management_system.event.NotificationEvent event = new com.example.workflow_management_system.event.NotificationEvent(
-                com.example.workflow_management_system.event.NotificationType.REQUEST_ASSIGNED,
-                assignee.getEmail(),
-                tenantName,
-                metadata);
-        eventPublisher.publishEvent(event);
+            auditLogService.logEventOnCommit("REQUEST_ASSIGNMENT", String.valueOf(request.getId()),
+                    "ASSIGNMENT_COMPLETED", details);
+        }
 
-        java.util.Map<String, Object> details = new java.util.HashMap<>();
-        details.put("requestId", saved.getRequest().getId());
-        details.put("assignedTo", saved.getAssignedTo().getUsername());
-        details.put("status", saved.getStatus());
+        int cancelled = closeOpenAssignments(request);
 
-        auditLogService.logEvent("REQUEST_ASSIGNMENT", String.valueOf(saved.getId()), "ASSIGNMENT_CREATED", details);
+        if (completed > 0 && cancelled == 0) {
+            eventPublisher.publishEvent(
+                    new com.example.workflow_management_system.event.AssignmentsClosedEvent(request.getId()));
+        }
     }
 
-    public void completeAssignment(Request request, User user) {
-        // Find active assignment for this request and user
-        // If found, mark completed.
-        // Strict tenant check via repository
-        List<RequestAssignment> assignments = requestAssignmentRepository
-                .findByAssignedTo_IdAndTenantIdOrderByAssignedAtDesc(user.getId(), request.getTenantId());
-
-        for (RequestAssignment assignment : assignments) {
-            if (assignment.getRequest().getId().equals(request.getId())
-                    && assignment.getStatus() == AssignmentStatus.ASSIGNED) {
-                assignment.setStatus(AssignmentStatus.COMPLETED);
-                RequestAssignment saved = requestAssignmentRepository.save(assignment);
-
-                java.util.Map<String, Object> details = new java.util.HashMap<>();
-                details.put("requestId", saved.getRequest().getId());
-                details.put("assignedTo", saved.getAssignedTo().getUsername());
-                details.put("status", saved.getStatus());
-
-                auditLogService.logEvent("REQUEST_ASSIGNMENT", String.valueOf(saved.getId()), "ASSIGNMENT_COMPLETED",
-                        details);
-                // We assume only one active assignment per user per request usually
-                break;
-            }
+    /**
+     * Cancels every assignment still open on the request, e.g. the sibling
+     * assignments of a step someone else decided or that was auto-approved.
+     * Returns the number of assignments cancelled.
+     */
+    public int closeOpenAssignments(Request request) {
+        int cancelled = requestAssignmentRepository.updateStatusForRequest(request.getId(), request.getTenantId(),
+                OPEN_STATUSES, AssignmentStatus.CANCELLED, LocalDateTime.now());
+
+        if (cancelled > 0) {
+            java.util.Map<String, Object> details = new java.util.HashMap<>();
+            details.put("requestId", request.getId());
+            details.put("count", cancelled);
+            details.put("status", AssignmentStatus.CANCELLED);
+
+            auditLogService.logEventOnCommit("REQUEST_ASSIGNMENT", String.valueOf(request.getId()),
+                    "ASSIGNMENTS_CANCELLED", details);
+            eventPublisher.publishEvent(
+                    new com.example.workflow_management_system.event.AssignmentsClosedEvent(request.getId()));
         }
+        return cancelled;
     }
 
-    public void createAssignmentsForStep(Request request, WorkflowStep step) {
+    /**
+     * Assigns the request to every active user holding the step's role. Users
+     * come from an indexed (tenant, role, active) lookup, assignments are
+     * inserted as one batch, and the fan-out writes a single notification
+     * event and a single audit event to the outbox regardless of how many
+     * approvers match.
+     */
+    public void createAssignmentsForStep(Request request, WorkflowGraph.StepNode step, String tenantName) {
         if (request.getStatus() == RequestStatus.COMPLETED || request.getStatus() == RequestStatus.REJECTED) {
             throw new ResponseStatusException(HttpStatus.CONFLICT,
                     "Cannot create assignment for a terminal request (COMPLETED/REJECTED).");
         }
 
-        // Find all users in tenant with required role
-        List<User> eligibleUsers = userRepository.findByTenant_Id(request.getTenantId()).stream()
-                .filter(u -> u.getRole() == step.getRequiredRole())
-                .collect(Collectors.toList());
+        List<User> eligibleUsers = userRepository
+                .findByTenant_IdAndRoleAndActiveTrueAndDeletedFalse(request.getTenantId(), step.requiredRole());
 
-        for (User user : eligibleUsers) {
-            createAssignment(request, user);
+        if (eligibleUsers.isEmpty()) {
+            return;
+        }
+
+        // Resolve the tenant name once for the whole fan-out when the caller
+        // does not already have it
+        if (tenantName == null) {
+            tenantName = resolveTenantName(request.getTenantId());
         }
-    }
 
-    @Transactional
-    public void markOverdueAssignments() {
-        // Find all assigned assignments past their due date
-        // Logic: status = ASSIGNED AND dueAt < now()
-        // Tenant isolation: Implied as we query all and data is physically separated by
-        // tenant_id column, so safe to process.
-        List<RequestAssignment> overdueAssignments = requestAssignmentRepository
-                .findAllByStatusAndDueAtBefore(AssignmentStatus.ASSIGNED, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime dueAt = now.plusDays(2); // Default 2 days due
+        List<RequestAssignment> assignments = new java.util.ArrayList<>(eligibleUsers.size());
+        for (User user : eligibleUsers) {
+            assignments.add(new RequestAssignment(request, user, now, dueAt, AssignmentStatus.ASSIGNED,
+                    request.getTenantId()));
+        }
+        requestAssignmentRepository.saveAll(assignments);
 
-        for (RequestAssignment assignment : overdueAssignments) {
-            assignment.setStatus(AssignmentStatus.OVERDUE);
-            RequestAssignment saved = requestAssignmentRepository.save(assignment);
+        List<com.example.workflow_management_system.event.AssignmentsCreatedEvent.Assignee> assignees = assignments
+                .stream()
+                .map(a -> new com.example.workflow_management_system.event.AssignmentsCreatedEvent.Assignee(
+                        a.getId(), a.getAssignedTo().getUsername(), a.getAssignedTo().getEmail()))
+                .collect(Collectors.toList());
+        outboxService.append(new com.example.workflow_management_system.event.AssignmentsCreatedEvent(
+                request.getId(), request.getTenantId(), step.stepName(), tenantName, dueAt, assignees));
 
-            java.util.Map<String, Object> details = new java.util.HashMap<>();
-            details.put("requestId", saved.getRequest().getId());
-            details.put("assignedTo", saved.getAssignedTo().getUsername());
-            details.put("status", saved.getStatus());
+        java.util.Map<String, Object> details = new java.util.HashMap<>();
+        details.put("requestId", request.getId());
+        details.put("stepId", step.id());
+        details.put("stepName", step.stepName());
+        details.put("assignmentIds", assignees.stream().map(a -> a.assignmentId()).collect(Collectors.toList()));
+        details.put("assignedTo", assignees.stream().map(a -> a.username()).collect(Collectors.toList()));
+        details.put("status", AssignmentStatus.ASSIGNED);
+
+        auditLogService.logEventOnCommit("REQUEST_ASSIGNMENT", String.valueOf(request.getId()),
+                "ASSIGNMENTS_CREATED", details);
+    }
 
-            // Performed by SYSTEM (null user context probably, or explicit system method)
-            auditLogService.logEvent("REQUEST_ASSIGNMENT", String.valueOf(saved.getId()), "ASSIGNMENT_OVERDUE",
-                    "SYSTEM", saved.getTenantId(), details);
+    private String resolveTenantName(Long tenantId) {
+        try {
+            return tenantRepository.findById(tenantId)
+                    .map(t -> t.getName()).orElse("Workflow System");
+        } catch (Exception e) {
+            return "Workflow System";
         }
     }
 
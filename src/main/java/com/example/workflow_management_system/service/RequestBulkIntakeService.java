@@ -0,0 +1,358 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.dto.BulkRequestIntakeError;
+import com.example.workflow_management_system.dto.BulkRequestIntakeProgress;
+import com.example.workflow_management_system.dto.RequestCreateRequest;
+import com.example.workflow_management_system.event.RequestsBulkCreatedEvent;
+import com.example.workflow_management_system.model.*;
+import com.example.workflow_management_system.repository.UserRepository;
+import com.example.workflow_management_system.repository.WorkflowRepository;
+import com.example.workflow_management_system.security.SecurityUtils;
+import com.example.workflow_management_system.security.UserPrincipal;
+import com.example.workflow_management_system.util.TimeSortableIds;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk intake for requests pushed by upstream systems. Reads a stream of
+ * {@link RequestCreateRequest} (NDJSON or a JSON array), resolves workflows,
+ * graphs and approvers once per workflow and writes requests, actions and
+ * assignments with JDBC batch inserts, one transaction per workflow within a
+ * batch. A progress line is written to the output after every batch.
+ *
+ * Side effects are aggregated per workflow group: one
+ * {@link RequestsBulkCreatedEvent} in the outbox (due timers) and one role
+ * notification with the count, instead of one of each per request.
+ */
+@Service
+public class RequestBulkIntakeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestBulkIntakeService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_REQUEST_SQL = "INSERT INTO requests "
+            + "(id, workflow_id, created_by, current_step_id, status, tenant_id, payload, version, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private static final String INSERT_ACTION_SQL = "INSERT INTO request_actions "
+            + "(id, request_id, action_by, action_type, from_step_id, to_step_id, comments, action_time, tenant_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ASSIGNMENT_SQL = "INSERT INTO request_assignments "
+            + "(id, request_id, assigned_to, assigned_at, due_at, status, tenant_id, version, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private record PendingItem(int index, Long workflowId, String payloadJson) {
+    }
+
+    private record PlannedAction(ActionType actionType, Long fromStepId, Long toStepId, String comment) {
+    }
+
+    // Everything a new request of one workflow goes through on submission is
+    // the same for every item of the stream, so it is planned once.
+    private record WorkflowPlan(Long workflowId, String workflowName, List<PlannedAction> actions,
+            Long currentStepId, RequestStatus status, WorkflowGraph.StepNode pendingStep, List<Long> assigneeIds) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate batchTransactionTemplate;
+    private final WorkflowRepository workflowRepository;
+    private final UserRepository userRepository;
+    private final WorkflowGraphService workflowGraphService;
+    private final AuditLogService auditLogService;
+    private final OutboxService outboxService;
+    private final NotificationService notificationService;
+
+    private final Counter requestCreatedCounter;
+    private final Counter bulkFailedCounter;
+    private final Timer batchTimer;
+
+    @Value("${app.requests.bulk-intake-batch-size:500}")
+    private int batchSize;
+
+    public RequestBulkIntakeService(ObjectMapper objectMapper,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            WorkflowRepository workflowRepository,
+            UserRepository userRepository,
+            WorkflowGraphService workflowGraphService,
+            AuditLogService auditLogService,
+            OutboxService outboxService,
+            NotificationService notificationService,
+            MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.workflowRepository = workflowRepository;
+        this.userRepository = userRepository;
+        this.workflowGraphService = workflowGraphService;
+        this.auditLogService = auditLogService;
+        this.outboxService = outboxService;
+        this.notificationService = notificationService;
+
+        this.batchTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.requestCreatedCounter = meterRegistry.counter("requests_created_total");
+        this.bulkFailedCounter = meterRegistry.counter("requests_bulk_intake_failed_total");
+        this.batchTimer = meterRegistry.timer("requests_bulk_intake_batch_duration");
+    }
+
+    public BulkRequestIntakeProgress ingest(InputStream inputStream, OutputStream progressStream) throws IOException {
+        Long tenantId = SecurityUtils.getCurrentTenantId();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
+        long startedAt = System.currentTimeMillis();
+
+        Map<Long, Object> plans = new HashMap<>(); // WorkflowPlan or rejection message
+        List<BulkRequestIntakeError> errors = new ArrayList<>();
+        List<PendingItem> batch = new ArrayList<>(batchSize);
+        int processed = 0;
+        int created = 0;
+        int failed = 0;
+
+        try (MappingIterator<RequestCreateRequest> items = objectMapper.readerFor(RequestCreateRequest.class)
+                .readValues(inputStream)) {
+            int index = 0;
+            while (true) {
+                RequestCreateRequest item;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    item = items.nextValue();
+                } catch (IOException e) {
+                    // The stream cannot be resynchronised after malformed JSON
+                    failed++;
+                    addError(errors, new BulkRequestIntakeError(index, null, "Malformed input, intake stopped"));
+                    break;
+                }
+
+                String rejection = null;
+                String payloadJson = null;
+                if (item == null || item.workflowId() == null) {
+                    rejection = "Workflow ID is required";
+                } else if (item.payload() != null) {
+                    try {
+                        payloadJson = objectMapper.writeValueAsString(item.payload());
+                    } catch (JsonProcessingException e) {
+                        rejection = "Invalid payload format";
+                    }
+                }
+
+                if (rejection != null) {
+                    failed++;
+                    addError(errors, new BulkRequestIntakeError(index, item != null ? item.workflowId() : null,
+                            rejection));
+                } else {
+                    batch.add(new PendingItem(index, item.workflowId(), payloadJson));
+                }
+                index++;
+                processed++;
+
+                if (batch.size() >= batchSize) {
+                    int inserted = flushBatch(batch, plans, errors, tenantId, currentUser);
+                    created += inserted;
+                    failed += batch.size() - inserted;
+                    batch.clear();
+                    writeProgress(progressStream, new BulkRequestIntakeProgress("PROGRESS", processed, created,
+                            failed, System.currentTimeMillis() - startedAt, null));
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            int inserted = flushBatch(batch, plans, errors, tenantId, currentUser);
+            created += inserted;
+            failed += batch.size() - inserted;
+        }
+
+        bulkFailedCounter.increment(failed);
+        BulkRequestIntakeProgress summary = new BulkRequestIntakeProgress("SUMMARY", processed, created, failed,
+                System.currentTimeMillis() - startedAt, errors);
+        writeProgress(progressStream, summary);
+        logger.info("Bulk intake for tenant {} finished: {} processed, {} created, {} failed in {} ms", tenantId,
+                processed, created, failed, summary.elapsedMillis());
+        return summary;
+    }
+
+    private int flushBatch(List<PendingItem> batch, Map<Long, Object> plans, List<BulkRequestIntakeError> errors,
+            Long tenantId, UserPrincipal currentUser) {
+        Map<Long, List<PendingItem>> byWorkflow = batch.stream()
+                .collect(Collectors.groupingBy(PendingItem::workflowId, LinkedHashMap::new, Collectors.toList()));
+
+        return batchTimer.record(() -> {
+            int inserted = 0;
+            for (Map.Entry<Long, List<PendingItem>> group : byWorkflow.entrySet()) {
+                List<PendingItem> items = group.getValue();
+                try {
+                    inserted += batchTransactionTemplate.execute(status -> {
+                        Object plan = plans.computeIfAbsent(group.getKey(),
+                                workflowId -> planWorkflow(workflowId, tenantId, currentUser));
+                        if (plan instanceof String rejection) {
+                            items.forEach(i -> addError(errors,
+                                    new BulkRequestIntakeError(i.index(), i.workflowId(), rejection)));
+                            return 0;
+                        }
+                        insertGroup(items, (WorkflowPlan) plan, tenantId, currentUser.getId());
+                        return items.size();
+                    });
+                } catch (RuntimeException e) {
+                    logger.error("Bulk intake batch for workflow {} failed", group.getKey(), e);
+                    items.forEach(i -> addError(errors,
+                            new BulkRequestIntakeError(i.index(), i.workflowId(), "Batch insert failed")));
+                }
+            }
+            return inserted;
+        });
+    }
+
+    private Object planWorkflow(Long workflowId, Long tenantId, UserPrincipal currentUser) {
+        Workflow workflow = workflowRepository.findById(workflowId).orElse(null);
+        if (workflow == null) {
+            return "Workflow not found";
+        }
+        if (!workflow.getTenant().getId().equals(tenantId)) {
+            return "Access denied: Workflow belongs to another tenant";
+        }
+        WorkflowGraph graph = workflowGraphService.getGraph(workflowId);
+        if (graph.isEmpty()) {
+            return "Workflow has no steps";
+        }
+
+        WorkflowGraph.StepNode firstStep = graph.getFirstStep();
+        boolean isCreatorStep = firstStep.requiredRole().name().equals(currentUser.getRole())
+                || firstStep.requiredRole() == UserRole.USER;
+
+        List<PlannedAction> actions = new ArrayList<>();
+        WorkflowGraph.StepNode currentStep = firstStep;
+        WorkflowGraph.StepNode landingStep = firstStep;
+        if (isCreatorStep || firstStep.autoApprove()) {
+            List<WorkflowGraph.StepNode> run = graph.getApprovalRun(firstStep);
+            currentStep = run.get(run.size() - 1);
+            landingStep = graph.getNextStep(currentStep);
+            for (int i = 0; i < run.size(); i++) {
+                WorkflowGraph.StepNode next = i + 1 < run.size() ? run.get(i + 1) : landingStep;
+                actions.add(new PlannedAction(i == 0 ? ActionType.APPROVE : ActionType.AUTO_APPROVE,
+                        run.get(i).id(), next != null ? next.id() : null,
+                        i == 0 ? "Request Submitted" : RequestTransitionExecutor.AUTO_APPROVE_COMMENT));
+            }
+        }
+
+        if (landingStep == null) {
+            return new WorkflowPlan(workflowId, workflow.getName(), actions, currentStep.id(),
+                    RequestStatus.COMPLETED, null, List.of());
+        }
+
+        List<Long> assigneeIds = userRepository
+                .findByTenant_IdAndRoleAndActiveTrueAndDeletedFalse(tenantId, landingStep.requiredRole()).stream()
+                .map(User::getId)
+                .collect(Collectors.toList());
+        return new WorkflowPlan(workflowId, workflow.getName(), actions, landingStep.id(), RequestStatus.IN_PROGRESS,
+                landingStep, assigneeIds);
+    }
+
+    private void insertGroup(List<PendingItem> items, WorkflowPlan plan, Long tenantId, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTs = Timestamp.valueOf(now);
+        LocalDateTime dueAt = now.plusDays(2); // Same default as RequestAssignmentService
+        Timestamp dueTs = Timestamp.valueOf(dueAt);
+
+        List<Long> requestIds = insertRequests(items, plan, tenantId, userId, nowTs);
+
+        if (!plan.actions().isEmpty()) {
+            List<Object[]> actionRows = new ArrayList<>(requestIds.size() * plan.actions().size());
+            for (Long requestId : requestIds) {
+                for (PlannedAction action : plan.actions()) {
+                    actionRows.add(new Object[] { TimeSortableIds.next(), requestId, userId, action.actionType().name(), action.fromStepId(),
+                            action.toStepId(), action.comment(), nowTs, tenantId });
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_ACTION_SQL, actionRows);
+        }
+
+        if (!plan.assigneeIds().isEmpty()) {
+            List<Object[]> assignmentRows = new ArrayList<>(requestIds.size() * plan.assigneeIds().size());
+            for (Long requestId : requestIds) {
+                for (Long assigneeId : plan.assigneeIds()) {
+                    assignmentRows.add(new Object[] { TimeSortableIds.next(), requestId, assigneeId, nowTs, dueTs,
+                            AssignmentStatus.ASSIGNED.name(), tenantId, nowTs, nowTs });
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_ASSIGNMENT_SQL, assignmentRows);
+            outboxService.append(new RequestsBulkCreatedEvent(plan.workflowId(), tenantId,
+                    plan.pendingStep().stepName(), dueAt, requestIds));
+        }
+
+        // One broadcast for the group instead of one per request
+        if (plan.pendingStep() != null) {
+            notificationService.createNotificationsForRole(requestIds.size() + " new approvals assigned: "
+                    + plan.pendingStep().stepName(), "ACTION", tenantId, plan.pendingStep().requiredRole());
+        }
+
+        requestCreatedCounter.increment(requestIds.size());
+
+        Map<String, Object> details = new HashMap<>();
+        details.put("workflowId", plan.workflowId());
+        details.put("workflowName", plan.workflowName());
+        details.put("count", requestIds.size());
+        details.put("requestIds", requestIds);
+        auditLogService.logEvent("WORKFLOW", String.valueOf(plan.workflowId()), "REQUESTS_BULK_CREATED", details);
+    }
+
+    private List<Long> insertRequests(List<PendingItem> items, WorkflowPlan plan, Long tenantId, Long userId,
+            Timestamp now) {
+        List<Long> ids = new ArrayList<>(items.size());
+        List<Object[]> rows = new ArrayList<>(items.size());
+        for (PendingItem item : items) {
+            Long id = TimeSortableIds.next();
+            ids.add(id);
+            rows.add(new Object[] { id, plan.workflowId(), userId, plan.currentStepId(), plan.status().name(),
+                    tenantId, item.payloadJson(), now, now });
+        }
+        jdbcTemplate.batchUpdate(INSERT_REQUEST_SQL, rows);
+        return ids;
+    }
+
+    private void addError(List<BulkRequestIntakeError> errors, BulkRequestIntakeError error) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    private void writeProgress(OutputStream progressStream, BulkRequestIntakeProgress progress) {
+        try {
+            progressStream.write(objectMapper.writeValueAsString(progress).getBytes(StandardCharsets.UTF_8));
+            progressStream.write('\n');
+            progressStream.flush();
+        } catch (IOException e) {
+            // Client went away; keep ingesting what it already sent
+            logger.warn("Could not write bulk intake progress: {}", e.getMessage());
+        }
+    }
+}
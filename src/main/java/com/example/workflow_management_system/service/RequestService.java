@@ -1,6 +1,10 @@
 package com.example.workflow_management_system.service;
 
+import com.example.workflow_management_system.dto.BulkRequestActionRequest;
+import com.example.workflow_management_system.dto.BulkRequestActionResponse;
+import com.example.workflow_management_system.dto.BulkRequestActionResult;
 import com.example.workflow_management_system.dto.RequestCreateRequest;
+import com.example.workflow_management_system.dto.RequestExportRow;
 import com.example.workflow_management_system.dto.RequestResponse;
 import com.example.workflow_management_system.dto.RequestActionResponse;
 import com.example.workflow_management_system.model.*;
@@ -10,7 +14,11 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Counter;
@@ -40,6 +48,17 @@ public class RequestService {
     private final AuditLogService auditLogService;
     private final MeterRegistry meterRegistry;
     private final NotificationService notificationService;
+    private final WorkflowGraphService workflowGraphService;
+    private final RequestTransitionExecutor requestTransitionExecutor;
+    private final TransactionTemplate bulkTransactionTemplate;
+    private final ExportService exportService;
+    private final jakarta.persistence.EntityManager entityManager;
+
+    @org.springframework.beans.factory.annotation.Value("${app.requests.bulk-chunk-size:100}")
+    private int bulkChunkSize;
+
+    @org.springframework.beans.factory.annotation.Value("${app.export.fetch-size:1000}")
+    private int exportFetchSize;
 
     private final Counter requestCreatedCounter;
     private final Counter requestApprovedCounter;
@@ -54,7 +73,12 @@ public class RequestService {
             RequestActionRepository requestActionRepository,
             AuditLogService auditLogService,
             MeterRegistry meterRegistry,
-            NotificationService notificationService) {
+            NotificationService notificationService,
+            WorkflowGraphService workflowGraphService,
+            RequestTransitionExecutor requestTransitionExecutor,
+            PlatformTransactionManager transactionManager,
+            ExportService exportService,
+            jakarta.persistence.EntityManager entityManager) {
         this.requestRepository = requestRepository;
         this.workflowRepository = workflowRepository;
         this.workflowStepRepository = workflowStepRepository;
@@ -65,6 +89,13 @@ public class RequestService {
         this.auditLogService = auditLogService;
         this.meterRegistry = meterRegistry;
         this.notificationService = notificationService;
+        this.workflowGraphService = workflowGraphService;
+        this.requestTransitionExecutor = requestTransitionExecutor;
+        this.exportService = exportService;
+        this.entityManager = entityManager;
+
+        this.bulkTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.bulkTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
 
         this.requestCreatedCounter = meterRegistry.counter("requests_created_total");
         this.requestApprovedCounter = meterRegistry.counter("requests_approved_total");
@@ -83,12 +114,12 @@ public class RequestService {
                     "Access denied: Workflow belongs to another tenant");
         }
 
-        List<WorkflowStep> steps = workflowStepRepository.findByWorkflowIdOrderByStepOrderAsc(workflow.getId());
-        if (steps.isEmpty()) {
+        WorkflowGraph graph = workflowGraphService.getGraph(workflow.getId());
+        if (graph.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Workflow has no steps");
         }
 
-        WorkflowStep firstStep = steps.get(0);
+        WorkflowGraph.StepNode firstStep = graph.getFirstStep();
 
         User user = userRepository.findById(currentUser.getId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
@@ -105,7 +136,7 @@ public class RequestService {
         Request request = new Request();
         request.setWorkflow(workflow);
         request.setCreatedBy(user);
-        request.setCurrentStep(firstStep);
+        request.setCurrentStep(workflowStepRepository.getReferenceById(firstStep.id()));
         request.setStatus(RequestStatus.IN_PROGRESS);
         request.setTenantId(tenantId);
         request.setPayload(payloadJson);
@@ -113,56 +144,39 @@ public class RequestService {
         Request savedRequest = requestRepository.save(request);
 
         // Check for Auto-Completion of First Step
-        boolean isCreatorStep = firstStep.getRequiredRole().name().equals(currentUser.getRole())
-                || firstStep.getRequiredRole() == UserRole.USER;
-
-        if (isCreatorStep || firstStep.isAutoApprove()) {
-            RequestAction submitAction = new RequestAction(savedRequest, user, ActionType.APPROVE, firstStep, null,
-                    "Request Submitted", tenantId);
+        boolean isCreatorStep = firstStep.requiredRole().name().equals(currentUser.getRole())
+                || firstStep.requiredRole() == UserRole.USER;
 
-            List<WorkflowStep> allSteps = workflowStepRepository.findByWorkflowIdOrderByStepOrderAsc(workflow.getId());
-            WorkflowStep nextStep = allSteps.stream()
-                    .filter(s -> s.getStepOrder() > firstStep.getStepOrder())
-                    .findFirst()
-                    .orElse(null);
+        if (isCreatorStep || firstStep.autoApprove()) {
+            RequestTransitionExecutor.TransitionResult result = requestTransitionExecutor.approve(savedRequest, graph,
+                    firstStep, user, ActionType.APPROVE, "Request Submitted", currentUser.getTenantName());
 
-            submitAction.setToStep(nextStep);
-            requestActionRepository.save(submitAction);
-
-            if (nextStep == null) {
-                savedRequest.setStatus(RequestStatus.COMPLETED);
+            if (result.landingStep() == null) {
                 notificationService.createNotification("Your request #" + savedRequest.getId() + " has been completed.",
                         "SUCCESS", savedRequest, user);
             } else {
-                savedRequest.setCurrentStep(nextStep);
-                requestAssignmentService.createAssignmentsForStep(savedRequest, nextStep);
-
+                WorkflowGraph.StepNode nextStep = result.landingStep();
                 // Notify Next Approvers
-                notificationService.createNotificationsForRole("New approval assigned: " + nextStep.getStepName(),
-                        "ACTION", savedRequest, nextStep.getRequiredRole().name());
+                notificationService.createNotificationsForRole("New approval assigned: " + nextStep.stepName(),
+                        "ACTION", savedRequest, nextStep.requiredRole().name());
                 // Notify User
-                notificationService.createNotification("Your request moved to " + nextStep.getStepName(), "INFO",
+                notificationService.createNotification("Your request moved to " + nextStep.stepName(), "INFO",
                         savedRequest, user);
-
-                // Handle Recursive Auto-Approve
-                if (nextStep.isAutoApprove()) {
-                    processAction(savedRequest.getId(), "System Auto-Approved", ActionType.AUTO_APPROVE);
-                }
             }
-            requestRepository.save(savedRequest);
         } else {
             // Normal flow: Create assignment for the first step
-            requestAssignmentService.createAssignmentsForStep(savedRequest, firstStep);
+            requestAssignmentService.createAssignmentsForStep(savedRequest, firstStep, currentUser.getTenantName());
             // Notify Approvers
-            notificationService.createNotificationsForRole("New approval assigned: " + firstStep.getStepName(),
-                    "ACTION", savedRequest, firstStep.getRequiredRole().name());
+            notificationService.createNotificationsForRole("New approval assigned: " + firstStep.stepName(),
+                    "ACTION", savedRequest, firstStep.requiredRole().name());
         }
 
         java.util.Map<String, Object> details = new java.util.HashMap<>();
         details.put("workflowId", workflow.getId());
         details.put("workflowName", workflow.getName());
         details.put("payload", createRequest.payload());
-        auditLogService.logEvent("REQUEST", String.valueOf(savedRequest.getId()), "REQUEST_CREATED", details);
+        auditLogService.logEventOnCommit("REQUEST", String.valueOf(savedRequest.getId()), "REQUEST_CREATED",
+                details);
 
         requestCreatedCounter.increment();
 
@@ -171,85 +185,164 @@ public class RequestService {
 
     // ... existing ...
 
-    // START: processAction modification
     private void processAction(Long requestId, String comment, ActionType actionType) {
         Long tenantId = SecurityUtils.getCurrentTenantId();
         UserPrincipal currentUser = SecurityUtils.getCurrentUser();
-        // For System actions, we might need a system user or use current user if
-        // context exists
         User user = userRepository.findById(currentUser.getId()).orElseThrow();
 
         Request request = requestRepository.findByIdAndTenantId(requestId, tenantId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Request not found"));
 
+        WorkflowGraph graph = workflowGraphService.getGraph(request.getWorkflow().getId());
+        WorkflowGraph.StepNode currentStep = checkAction(request, graph, currentUser);
+        applyAction(request, graph, currentStep, user, currentUser, actionType, comment);
+    }
+
+    // Writes nothing, so a ResponseStatusException thrown from here leaves the
+    // surrounding transaction untouched. Returns the step being decided.
+    private WorkflowGraph.StepNode checkAction(Request request, WorkflowGraph graph, UserPrincipal currentUser) {
         if (request.getStatus() != RequestStatus.IN_PROGRESS) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Request is not in progress");
         }
 
-        WorkflowStep currentStep = request.getCurrentStep();
+        WorkflowGraph.StepNode currentStep = graph.getStep(request.getCurrentStep().getId());
+        if (currentStep == null) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Current step is not part of the workflow");
+        }
 
-        if (actionType != ActionType.AUTO_APPROVE) {
-            if (!currentUser.getRole().equals(currentStep.getRequiredRole().name())) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN,
-                        "You do not have the required role to approve this step.");
-            }
-            requestAssignmentService.completeAssignment(request, user);
+        if (!currentUser.getRole().equals(currentStep.requiredRole().name())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                    "You do not have the required role to approve this step.");
         }
+        return currentStep;
+    }
 
-        RequestAction action = new RequestAction(request, user, actionType, currentStep, null, comment, tenantId);
+    // Anything thrown from here may follow earlier writes; callers must roll
+    // the transaction back rather than carry on with it.
+    private void applyAction(Request request, WorkflowGraph graph, WorkflowGraph.StepNode currentStep, User user,
+            UserPrincipal currentUser, ActionType actionType, String comment) {
+        requestAssignmentService.completeAssignment(request, user);
 
         if (actionType == ActionType.REJECT) {
-            request.setStatus(RequestStatus.REJECTED);
-            requestActionRepository.save(action);
-            requestRepository.save(request);
+            requestTransitionExecutor.reject(request, currentStep, user, comment);
 
             // Notify Creator
             notificationService.createNotification("Your request #" + request.getId() + " has been REJECTED.", "ERROR",
                     request, request.getCreatedBy());
-
             return;
         }
 
-        List<WorkflowStep> allSteps = workflowStepRepository
-                .findByWorkflowIdOrderByStepOrderAsc(request.getWorkflow().getId());
-        WorkflowStep nextStep = allSteps.stream()
-                .filter(s -> s.getStepOrder() > currentStep.getStepOrder())
-                .findFirst()
-                .orElse(null);
-
-        action.setToStep(nextStep);
-        requestActionRepository.save(action);
-
-        if (nextStep == null) {
-            request.setStatus(RequestStatus.COMPLETED);
-            request.setCurrentStep(currentStep);
+        RequestTransitionExecutor.TransitionResult result = requestTransitionExecutor.approve(request, graph,
+                currentStep, user, actionType, comment, currentUser.getTenantName());
 
+        if (result.landingStep() == null) {
             // Notify Creator
             notificationService.createNotification("Your request #" + request.getId() + " is now COMPLETED.", "SUCCESS",
                     request, request.getCreatedBy());
-
         } else {
-            request.setCurrentStep(nextStep);
-            requestAssignmentService.createAssignmentsForStep(request, nextStep);
+            WorkflowGraph.StepNode nextStep = result.landingStep();
 
             // Notify Next Approvers
-            notificationService.createNotificationsForRole("New approval assigned: " + nextStep.getStepName(), "ACTION",
-                    request, nextStep.getRequiredRole().name());
+            notificationService.createNotificationsForRole("New approval assigned: " + nextStep.stepName(), "ACTION",
+                    request, nextStep.requiredRole().name());
 
             // Notify Creator (if creators are interested in progress)
             notificationService.createNotification(
-                    "Your request #" + request.getId() + " moved to " + nextStep.getStepName(), "INFO", request,
+                    "Your request #" + request.getId() + " moved to " + nextStep.stepName(), "INFO", request,
                     request.getCreatedBy());
+        }
+    }
 
-            if (nextStep.isAutoApprove()) {
-                processAction(requestId, "System Auto-Approved", ActionType.AUTO_APPROVE);
+    /**
+     * Approves or rejects many requests for the current user. Requests are
+     * processed in chunks, each chunk in its own transaction with the user,
+     * the requests and their workflow graphs loaded once. If a chunk fails
+     * unexpectedly it is retried one request per transaction so a single bad
+     * request does not fail its neighbours.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkRequestActionResponse bulkProcessActions(BulkRequestActionRequest bulkRequest) {
+        if (bulkRequest.actionType() == ActionType.AUTO_APPROVE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "AUTO_APPROVE cannot be requested in bulk");
+        }
+
+        List<Long> requestIds = bulkRequest.requestIds().stream()
+                .filter(java.util.Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        String comment = bulkRequest.comments() != null ? bulkRequest.comments() : "";
+
+        List<BulkRequestActionResult> results = new java.util.ArrayList<>(requestIds.size());
+        for (int from = 0; from < requestIds.size(); from += bulkChunkSize) {
+            List<Long> chunk = requestIds.subList(from, Math.min(from + bulkChunkSize, requestIds.size()));
+            try {
+                results.addAll(bulkTransactionTemplate
+                        .execute(status -> processChunk(chunk, bulkRequest.actionType(), comment)));
+            } catch (RuntimeException e) {
+                for (Long requestId : chunk) {
+                    results.add(processSingle(requestId, bulkRequest.actionType(), comment));
+                }
             }
         }
-        requestRepository.save(request);
+
+        int succeeded = (int) results.stream().filter(BulkRequestActionResult::success).count();
+        Counter counter = bulkRequest.actionType() == ActionType.REJECT ? requestRejectedCounter
+                : requestApprovedCounter;
+        counter.increment(succeeded);
+
+        return new BulkRequestActionResponse(results.size(), succeeded, results.size() - succeeded, results);
     }
-    // END: processAction modification
 
-    // ... remainders ...
+    private BulkRequestActionResult processSingle(Long requestId, ActionType actionType, String comment) {
+        try {
+            return bulkTransactionTemplate.execute(status -> processChunk(List.of(requestId), actionType, comment))
+                    .get(0);
+        } catch (ResponseStatusException e) {
+            return new BulkRequestActionResult(requestId, false, null, e.getReason());
+        } catch (RuntimeException e) {
+            return new BulkRequestActionResult(requestId, false, null,
+                    e instanceof org.springframework.dao.OptimisticLockingFailureException
+                            ? "The request was modified by another user. Please retry."
+                            : "Unexpected error: " + e.getMessage());
+        }
+    }
+
+    private List<BulkRequestActionResult> processChunk(List<Long> requestIds, ActionType actionType,
+            String comment) {
+        Long tenantId = SecurityUtils.getCurrentTenantId();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
+        User user = userRepository.findById(currentUser.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        Map<Long, Request> requests = requestRepository.findByIdInAndTenantId(requestIds, tenantId).stream()
+                .collect(Collectors.toMap(Request::getId, r -> r));
+        Map<Long, WorkflowGraph> graphs = new java.util.HashMap<>();
+
+        List<BulkRequestActionResult> results = new java.util.ArrayList<>(requestIds.size());
+        for (Long requestId : requestIds) {
+            Request request = requests.get(requestId);
+            if (request == null) {
+                results.add(new BulkRequestActionResult(requestId, false, null, "Request not found"));
+                continue;
+            }
+
+            WorkflowGraph graph = graphs.computeIfAbsent(request.getWorkflow().getId(),
+                    workflowGraphService::getGraph);
+            WorkflowGraph.StepNode currentStep;
+            try {
+                currentStep = checkAction(request, graph, currentUser);
+            } catch (ResponseStatusException e) {
+                results.add(new BulkRequestActionResult(requestId, false, request.getStatus(), e.getReason()));
+                continue;
+            }
+            // A failure past the checks aborts the chunk, which is then
+            // retried one request per transaction
+            applyAction(request, graph, currentStep, user, currentUser, actionType, comment);
+            results.add(new BulkRequestActionResult(requestId, true, request.getStatus(), null));
+        }
+        return results;
+    }
 
     @Transactional(readOnly = true)
     public RequestResponse getRequest(Long id) {
@@ -274,19 +367,50 @@ public class RequestService {
                 .map(this::mapToResponse);
     }
 
+    /**
+     * Writes the matching requests of the current tenant in the given format.
+     * Rows are read through a forward-only cursor ({@code app.export.fetch-size}
+     * rows per round trip) as a slim projection and written as they arrive, so
+     * memory use does not grow with the size of the export. Users without a
+     * manager or admin role only export their own requests.
+     */
     @Transactional(readOnly = true)
-    public List<RequestResponse> getAllRequestsForExport(
-            RequestStatus status, Long workflowId, Long createdByUserId,
-            LocalDateTime fromDate, LocalDateTime toDate) {
+    public void exportRequests(RequestStatus status, Long workflowId, Long createdByUserId,
+            LocalDateTime fromDate, LocalDateTime toDate,
+            ExportService.ExportFormat format, java.io.OutputStream outputStream) throws java.io.IOException {
         Long tenantId = SecurityUtils.getCurrentTenantId();
+        UserPrincipal currentUser = SecurityUtils.getCurrentUser();
+        if (currentUser.getAuthorities().stream()
+                .noneMatch(a -> a.getAuthority().equals("ROLE_TENANT_MANAGER")
+                        || a.getAuthority().equals("ROLE_TENANT_ADMIN")
+                        || a.getAuthority().equals("ROLE_GLOBAL_ADMIN"))) {
+            createdByUserId = currentUser.getId();
+        }
 
         org.springframework.data.jpa.domain.Specification<Request> spec = com.example.workflow_management_system.specification.RequestSpecification
                 .filterRequests(
                         tenantId, status, workflowId, createdByUserId, fromDate, toDate);
 
-        return requestRepository.findAll(spec).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        jakarta.persistence.criteria.CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        jakarta.persistence.criteria.CriteriaQuery<RequestExportRow> query = cb.createQuery(RequestExportRow.class);
+        jakarta.persistence.criteria.Root<Request> root = query.from(Request.class);
+        query.select(cb.construct(RequestExportRow.class,
+                root.get("id"),
+                root.join("workflow").get("name"),
+                root.get("status"),
+                root.join("currentStep").get("stepName"),
+                root.join("createdBy").get("username"),
+                root.get("createdAt")))
+                .where(spec.toPredicate(root, query, cb));
+
+        // Constructor projections are never managed, so the session stays
+        // empty however many rows stream through
+        try (java.util.stream.Stream<RequestExportRow> rows = entityManager.createQuery(query)
+                .setHint(org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            exportService.exportRequests(rows, format, outputStream);
+        }
     }
 
     @Transactional(readOnly = true)
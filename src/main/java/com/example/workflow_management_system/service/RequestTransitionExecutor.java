@@ -0,0 +1,116 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.model.*;
+import com.example.workflow_management_system.repository.RequestActionRepository;
+import com.example.workflow_management_system.repository.RequestRepository;
+import com.example.workflow_management_system.repository.WorkflowStepRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves a request through its workflow graph. An approval walks the whole run
+ * of auto-approve steps that follows it in memory, then writes the resulting
+ * actions in one batch, creates assignments for the step it lands on only and
+ * saves the request once.
+ */
+@Service
+@Transactional
+public class RequestTransitionExecutor {
+
+    static final String AUTO_APPROVE_COMMENT = "System Auto-Approved";
+
+    public record TransitionResult(List<RequestAction> actions, WorkflowGraph.StepNode landingStep,
+            int autoApprovedSteps) {
+    }
+
+    private final RequestRepository requestRepository;
+    private final RequestActionRepository requestActionRepository;
+    private final WorkflowStepRepository workflowStepRepository;
+    private final RequestAssignmentService requestAssignmentService;
+    private final OutboxService outboxService;
+
+    private final Counter autoApprovedStepsCounter;
+
+    public RequestTransitionExecutor(RequestRepository requestRepository,
+            RequestActionRepository requestActionRepository,
+            WorkflowStepRepository workflowStepRepository,
+            RequestAssignmentService requestAssignmentService,
+            OutboxService outboxService,
+            MeterRegistry meterRegistry) {
+        this.requestRepository = requestRepository;
+        this.requestActionRepository = requestActionRepository;
+        this.workflowStepRepository = workflowStepRepository;
+        this.requestAssignmentService = requestAssignmentService;
+        this.outboxService = outboxService;
+
+        this.autoApprovedStepsCounter = meterRegistry.counter("requests_auto_approved_steps_total");
+    }
+
+    /**
+     * Approves {@code fromStep} and keeps going while the next step is
+     * auto-approve. The request ends up either COMPLETED or waiting on the
+     * first step that needs a human decision.
+     */
+    public TransitionResult approve(Request request, WorkflowGraph graph, WorkflowGraph.StepNode fromStep,
+            User actor, ActionType actionType, String comment, String tenantName) {
+        List<WorkflowGraph.StepNode> run = graph.getApprovalRun(fromStep);
+        WorkflowGraph.StepNode step = run.get(run.size() - 1);
+        WorkflowGraph.StepNode landingStep = graph.getNextStep(step);
+        int autoApproved = run.size() - 1;
+
+        List<RequestAction> actions = new ArrayList<>(run.size());
+        for (int i = 0; i < run.size(); i++) {
+            WorkflowGraph.StepNode approved = run.get(i);
+            WorkflowGraph.StepNode next = i + 1 < run.size() ? run.get(i + 1) : landingStep;
+            actions.add(new RequestAction(request, actor, i == 0 ? actionType : ActionType.AUTO_APPROVE,
+                    stepReference(approved), stepReference(next), i == 0 ? comment : AUTO_APPROVE_COMMENT,
+                    request.getTenantId()));
+        }
+
+        requestActionRepository.saveAll(actions);
+
+        if (landingStep == null) {
+            request.setStatus(RequestStatus.COMPLETED);
+            request.setCurrentStep(stepReference(step));
+        } else {
+            request.setCurrentStep(stepReference(landingStep));
+            requestAssignmentService.createAssignmentsForStep(request, landingStep, tenantName);
+        }
+        requestRepository.save(request);
+        publishUpdate(request, landingStep != null ? landingStep : step, landingStep);
+
+        if (autoApproved > 0) {
+            autoApprovedStepsCounter.increment(autoApproved);
+        }
+        return new TransitionResult(actions, landingStep, autoApproved);
+    }
+
+    public TransitionResult reject(Request request, WorkflowGraph.StepNode fromStep, User actor, String comment) {
+        RequestAction action = new RequestAction(request, actor, ActionType.REJECT, stepReference(fromStep), null,
+                comment, request.getTenantId());
+        requestActionRepository.save(action);
+
+        request.setStatus(RequestStatus.REJECTED);
+        requestRepository.save(request);
+        publishUpdate(request, fromStep, null);
+
+        return new TransitionResult(List.of(action), null, 0);
+    }
+
+    // Pushed to the owner and the approvers of the next step after commit
+    private void publishUpdate(Request request, WorkflowGraph.StepNode currentStep,
+            WorkflowGraph.StepNode pendingStep) {
+        outboxService.append(new com.example.workflow_management_system.event.RequestUpdatedEvent(
+                request.getId(), request.getTenantId(), request.getCreatedBy().getId(), request.getStatus(),
+                currentStep.stepName(), pendingStep != null ? pendingStep.requiredRole() : null));
+    }
+
+    private WorkflowStep stepReference(WorkflowGraph.StepNode step) {
+        return step != null ? workflowStepRepository.getReferenceById(step.id()) : null;
+    }
+}
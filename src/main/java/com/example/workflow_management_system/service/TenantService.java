@@ -107,7 +107,17 @@ public class TenantService {
             }
         });
 
+        if (request.clearMailDigestMinutes() && request.mailDigestMinutes() != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Provide either mailDigestMinutes or clearMailDigestMinutes");
+        }
+
         tenant.setName(request.name());
+        if (request.clearMailDigestMinutes()) {
+            tenant.setMailDigestMinutes(null);
+        } else if (request.mailDigestMinutes() != null) {
+            tenant.setMailDigestMinutes(request.mailDigestMinutes());
+        }
         Tenant updatedTenant = tenantRepository.save(tenant);
         return mapToResponse(updatedTenant);
     }
@@ -128,6 +138,7 @@ public class TenantService {
                 tenant.getId(),
                 tenant.getName(),
                 tenant.getStatus(),
+                tenant.getMailDigestMinutes(),
                 tenant.getCreatedAt());
     }
 }
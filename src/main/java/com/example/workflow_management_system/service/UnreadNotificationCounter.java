@@ -0,0 +1,124 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.model.UserRole;
+import com.example.workflow_management_system.util.StripedLruMap;
+import com.example.workflow_management_system.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-user unread notification counts kept in memory so the unread-count
+ * endpoint does not run a COUNT per poll.
+ *
+ * A user's count is loaded from the database on a miss and then kept current
+ * in two parts: a per-user cell for personal notifications and read markers,
+ * and one shared cell per (tenant, role) counting the role broadcasts created
+ * since startup. The user's unread count is the user cell plus the broadcasts
+ * added to the role cell since the user's count was loaded, so a broadcast
+ * costs one increment however many users hold the role.
+ *
+ * Updates are applied after commit and only to users already cached. The
+ * cache only sees writes made by this node, so entries are reloaded after
+ * {@code ttl-seconds}; that also repairs a count that raced with a load. A
+ * user whose role changed is reloaded on the next read.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private static final class Entry {
+        final LongAdder userCell = new LongAdder();
+        final LongAdder roleCell;
+        final long roleBase;
+        final long loadedAt;
+
+        Entry(long unread, LongAdder roleCell, long roleBase, long loadedAt) {
+            this.userCell.add(unread);
+            this.roleCell = roleCell;
+            this.roleBase = roleBase;
+            this.loadedAt = loadedAt;
+        }
+
+        long unread() {
+            long broadcasts = roleCell != null ? roleCell.sum() - roleBase : 0L;
+            return Math.max(0L, userCell.sum() + broadcasts);
+        }
+    }
+
+    private final StripedLruMap<Long, Entry> entries;
+    private final ConcurrentHashMap<String, LongAdder> roleCells = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+
+    public UnreadNotificationCounter(MeterRegistry meterRegistry,
+            @Value("${app.notifications.unread-cache.max-entries:100000}") int maxEntries,
+            @Value("${app.notifications.unread-cache.stripes:16}") int stripes,
+            @Value("${app.notifications.unread-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.hitCounter = meterRegistry.counter("notification_unread_cache_hits_total");
+        this.missCounter = meterRegistry.counter("notification_unread_cache_misses_total");
+        this.evictionCounter = meterRegistry.counter("notification_unread_cache_evictions_total");
+        this.entries = new StripedLruMap<>(maxEntries, stripes, evicted -> evictionCounter.increment());
+        Gauge.builder("notification_unread_cache_size", this, c -> c.entries.size()).register(meterRegistry);
+    }
+
+    /**
+     * Returns the user's unread count, loading it with {@code loader} on a
+     * miss, after expiry, or when the user's role has changed.
+     */
+    public long getUnread(Long userId, Long tenantId, UserRole role, LongSupplier loader) {
+        LongAdder roleCell = tenantId != null && role != null ? roleCell(tenantId, role) : null;
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.roleCell == roleCell && now - entry.loadedAt < ttlMillis) {
+            hitCounter.increment();
+            return entry.unread();
+        }
+        missCounter.increment();
+
+        // The role cell is read before the database, so a broadcast committed
+        // during the load may be counted twice until the next reload but is
+        // never missed
+        long roleBase = roleCell != null ? roleCell.sum() : 0L;
+        entry = new Entry(loader.getAsLong(), roleCell, roleBase, now);
+        entries.put(userId, entry);
+        return entry.unread();
+    }
+
+    /**
+     * Returns the cached count without loading it, or -1 when the user is
+     * not cached.
+     */
+    public long getCachedUnread(Long userId) {
+        Entry entry = entries.get(userId);
+        return entry != null ? entry.unread() : -1L;
+    }
+
+    /** Adjusts a user's count (new personal notification, read, delete). */
+    public void addForUser(Long userId, long delta) {
+        TransactionCallbacks.afterCommit(() -> {
+            Entry entry = entries.get(userId);
+            if (entry != null) {
+                entry.userCell.add(delta);
+            }
+        });
+    }
+
+    /** Counts a new broadcast for every member of the role at once. */
+    public void addRoleBroadcast(Long tenantId, UserRole role) {
+        TransactionCallbacks.afterCommit(() -> roleCell(tenantId, role).increment());
+    }
+
+    private LongAdder roleCell(Long tenantId, UserRole role) {
+        return roleCells.computeIfAbsent(tenantId + ":" + role.name(), k -> new LongAdder());
+    }
+}
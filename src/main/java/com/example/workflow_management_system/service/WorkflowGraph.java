@@ -0,0 +1,96 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.model.UserRole;
+import com.example.workflow_management_system.model.WorkflowStep;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, precompiled view of a workflow's steps used by the request
+ * transition engine. Built once from the step table and shared between
+ * threads, so it only holds plain values and never JPA entities.
+ */
+public final class WorkflowGraph {
+
+    public record StepNode(Long id, int stepOrder, String stepName, UserRole requiredRole, boolean autoApprove) {
+    }
+
+    private final Long workflowId;
+    private final List<StepNode> steps;
+    private final NavigableMap<Integer, StepNode> stepsByOrder;
+    private final Map<Long, StepNode> stepsById;
+
+    private WorkflowGraph(Long workflowId, List<StepNode> steps) {
+        this.workflowId = workflowId;
+        this.steps = Collections.unmodifiableList(steps);
+
+        NavigableMap<Integer, StepNode> byOrder = new TreeMap<>();
+        Map<Long, StepNode> byId = new HashMap<>();
+        for (StepNode step : steps) {
+            byOrder.put(step.stepOrder(), step);
+            byId.put(step.id(), step);
+        }
+        this.stepsByOrder = Collections.unmodifiableNavigableMap(byOrder);
+        this.stepsById = Collections.unmodifiableMap(byId);
+    }
+
+    public static WorkflowGraph compile(Long workflowId, List<WorkflowStep> steps) {
+        List<StepNode> nodes = steps.stream()
+                .map(s -> new StepNode(s.getId(), s.getStepOrder(), s.getStepName(), s.getRequiredRole(),
+                        s.isAutoApprove()))
+                .sorted((a, b) -> Integer.compare(a.stepOrder(), b.stepOrder()))
+                .collect(Collectors.toList());
+        return new WorkflowGraph(workflowId, nodes);
+    }
+
+    public Long getWorkflowId() {
+        return workflowId;
+    }
+
+    public List<StepNode> getSteps() {
+        return steps;
+    }
+
+    public boolean isEmpty() {
+        return steps.isEmpty();
+    }
+
+    public StepNode getFirstStep() {
+        return steps.isEmpty() ? null : steps.get(0);
+    }
+
+    public StepNode getStep(Long stepId) {
+        return stepsById.get(stepId);
+    }
+
+    /**
+     * Returns the step that follows the given one, or null when the given step
+     * is the last step of the workflow.
+     */
+    public StepNode getNextStep(StepNode step) {
+        Map.Entry<Integer, StepNode> next = stepsByOrder.higherEntry(step.stepOrder());
+        return next != null ? next.getValue() : null;
+    }
+
+    /**
+     * Returns the steps that get approved when {@code step} is approved: the
+     * step itself followed by the run of auto-approve steps after it.
+     */
+    public List<StepNode> getApprovalRun(StepNode step) {
+        List<StepNode> run = new ArrayList<>();
+        run.add(step);
+        StepNode next = getNextStep(step);
+        while (next != null && next.autoApprove()) {
+            run.add(next);
+            next = getNextStep(next);
+        }
+        return run;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.repository.WorkflowStepRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional(readOnly = true)
+public class WorkflowGraphService {
+
+    private final WorkflowStepRepository workflowStepRepository;
+
+    public WorkflowGraphService(WorkflowStepRepository workflowStepRepository) {
+        this.workflowStepRepository = workflowStepRepository;
+    }
+
+    // Evicted by WorkflowStepService/WorkflowService whenever steps change.
+    // Empty graphs are not cached so a workflow picks up its first step right
+    // away.
+    @Cacheable(value = "workflowGraphs", key = "#workflowId", unless = "#result.isEmpty()")
+    public WorkflowGraph getGraph(Long workflowId) {
+        return WorkflowGraph.compile(workflowId,
+                workflowStepRepository.findByWorkflowIdOrderByStepOrderAsc(workflowId));
+    }
+}
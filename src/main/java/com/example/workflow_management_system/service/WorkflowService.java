@@ -184,7 +184,8 @@ public class WorkflowService {
     @Caching(evict = {
             @CacheEvict(value = "workflows", allEntries = true),
             @CacheEvict(value = "workflow_details", allEntries = true),
-            @CacheEvict(value = "workflowSteps", allEntries = true)
+            @CacheEvict(value = "workflowSteps", allEntries = true),
+            @CacheEvict(value = "workflowGraphs", allEntries = true)
     })
     public void deleteWorkflow(Long id) {
         checkWriteAccess();
@@ -17,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -36,7 +37,10 @@ public class WorkflowStepService {
         this.auditLogService = auditLogService;
     }
 
-    @CacheEvict(value = "workflowSteps", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "workflowSteps", allEntries = true),
+            @CacheEvict(value = "workflowGraphs", allEntries = true)
+    })
     public WorkflowStepResponse createStep(Long workflowId, WorkflowStepRequest request) {
         checkWriteAccess();
 
@@ -97,7 +101,10 @@ public class WorkflowStepService {
         return mapToResponse(step);
     }
 
-    @CacheEvict(value = "workflowSteps", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "workflowSteps", allEntries = true),
+            @CacheEvict(value = "workflowGraphs", allEntries = true)
+    })
     public WorkflowStepResponse updateStep(Long id, WorkflowStepRequest request) {
         checkWriteAccess();
 
@@ -136,7 +143,10 @@ public class WorkflowStepService {
         return mapToResponse(savedStep);
     }
 
-    @CacheEvict(value = "workflowSteps", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "workflowSteps", allEntries = true),
+            @CacheEvict(value = "workflowGraphs", allEntries = true)
+    })
     public void deleteStep(Long id) {
         checkWriteAccess();
 
@@ -150,7 +160,10 @@ public class WorkflowStepService {
         auditLogService.logEvent("WORKFLOW_STEP", String.valueOf(id), "WORKFLOW_STEP_DELETED", null);
     }
 
-    @CacheEvict(value = "workflowSteps", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "workflowSteps", allEntries = true),
+            @CacheEvict(value = "workflowGraphs", allEntries = true)
+    })
     public void reorderSteps(Long workflowId, List<Long> orderedStepIds) {
         checkWriteAccess();
 
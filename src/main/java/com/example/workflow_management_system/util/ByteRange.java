@@ -0,0 +1,53 @@
+package com.example.workflow_management_system.util;
+
+/**
+ * A single satisfiable byte range of a resource, {@code end} inclusive as in
+ * Content-Range.
+ */
+public record ByteRange(long start, long end) {
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * Parses a Range header against a resource of {@code size} bytes. Returns
+     * null when the whole resource should be sent: no header, a header that is
+     * not a single {@code bytes=} range (multiple ranges are served in full) or
+     * one that does not parse. Throws {@link IllegalArgumentException} when the
+     * range lies outside the resource (416).
+     */
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // bytes=-N: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    throw new IllegalArgumentException("Unsatisfiable range " + header);
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(first);
+            Long end = last.isEmpty() ? null : Long.parseLong(last);
+            if (start < 0 || (end != null && end < start)) {
+                return null;
+            }
+            if (start >= size) {
+                throw new IllegalArgumentException("Unsatisfiable range " + header);
+            }
+            return new ByteRange(start, end == null ? size - 1 : Math.min(end, size - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package com.example.workflow_management_system.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of small typed records kept in fixed-size memory-mapped
+ * segment files. An append is a memory copy into the mapped page cache, so
+ * records survive a JVM crash without a write on the caller's path; they
+ * reach the disk when the OS writes the pages back or on {@link #checkpoint}
+ * with {@code force}.
+ *
+ * Every record is addressed by its global offset. Appended records stay
+ * outstanding until {@link #acknowledge} is called for them, which appends a
+ * small ack record naming the offset. The checkpoint file stores the lowest
+ * outstanding offset; on {@link #open} the log is scanned from there and
+ * every record without an ack is replayed, so delivery is at-least-once but
+ * acknowledged records are not sent again. Records that stay outstanding are
+ * handed out again by {@link #redeliver} and given up on after a number of
+ * attempts, so one stuck record cannot hold back the checkpoint for good.
+ * Segments that lie entirely below the checkpoint are deleted.
+ *
+ * Record layout: int length, int crc32 (of type and payload), byte type,
+ * payload. The length is written last, so a torn append reads as the end of
+ * the log. A length of -1 marks the rest of a segment as unused. Type 0 is
+ * reserved for ack records.
+ */
+public final class MappedSegmentLog implements Closeable {
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        void handle(long offset, byte type, byte[] payload);
+    }
+
+    private static final int HEADER_SIZE = 9;
+    private static final byte TYPE_ACK = 0;
+    private static final int NO_RECORD = -2;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentSkipListMap<Long, Delivery> outstanding = new ConcurrentSkipListMap<>();
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+    private final Object checkpointLock = new Object();
+
+    private MappedByteBuffer current;
+    private long currentBase;
+    private long writeOffset;
+    private long replayFrom;
+    private long replayTo;
+    private volatile boolean replayed;
+    private boolean closed;
+
+    // When an outstanding record was last handed out, and how often
+    private static final class Delivery {
+        volatile long deliveredAt = System.currentTimeMillis();
+        volatile int attempts = 1;
+    }
+
+    // The segment files and the live segment as of one moment, for reading
+    // without holding the lock
+    private record View(NavigableMap<Long, Path> files, long liveBase, ByteBuffer live) {
+    }
+
+    private MappedSegmentLog(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Opens (or creates) the log in {@code directory}. Call {@link #replay}
+     * once afterwards to re-deliver the records left outstanding by the
+     * previous run.
+     */
+    public static MappedSegmentLog open(Path directory, int segmentSize) {
+        MappedSegmentLog log = new MappedSegmentLog(directory, segmentSize);
+        try {
+            log.recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open segment log in " + directory, e);
+        }
+        return log;
+    }
+
+    /**
+     * Appends a record and returns its offset. The record is outstanding until
+     * acknowledged.
+     */
+    public synchronized long append(byte type, byte[] payload) {
+        if (closed) {
+            throw new IllegalStateException("Segment log is closed");
+        }
+        if (type == TYPE_ACK) {
+            throw new IllegalArgumentException("Record type 0 is reserved");
+        }
+        long offset = write(type, payload);
+        outstanding.put(offset, new Delivery());
+        return offset;
+    }
+
+    /**
+     * Marks the record as processed. Its ack is appended to the log, so the
+     * record is not replayed after a restart. Acknowledging twice is a no-op.
+     */
+    public void acknowledge(long offset) {
+        if (outstanding.remove(offset) == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!closed) {
+                write(TYPE_ACK, ByteBuffer.allocate(8).putLong(offset).array());
+            }
+        }
+    }
+
+    public int outstandingCount() {
+        return outstanding.size();
+    }
+
+    private long write(byte type, byte[] payload) {
+        int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize - 4) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes exceeds the segment size");
+        }
+        int position = (int) (writeOffset - currentBase);
+        if (position + recordSize > segmentSize - 4) {
+            current.putInt(position, END_OF_SEGMENT);
+            roll(currentBase + segmentSize);
+            position = 0;
+        }
+
+        long offset = writeOffset;
+        current.put(position + 8, type);
+        current.put(position + HEADER_SIZE, payload);
+        current.putInt(position + 4, checksum(type, payload));
+        current.putInt(position, payload.length);
+        writeOffset += recordSize;
+        return offset;
+    }
+
+    /**
+     * Delivers the records left outstanding by the previous run to the
+     * handler, in log order. They are outstanding again until acknowledged.
+     */
+    public int replay(RecordHandler handler) {
+        if (replayed) {
+            return 0;
+        }
+        Map<Long, Object[]> pending = new LinkedHashMap<>();
+        try {
+            scan(view(), replayFrom, replayTo, (offset, type, payload) -> {
+                if (type == TYPE_ACK) {
+                    pending.remove(ByteBuffer.wrap(payload).getLong());
+                } else {
+                    pending.put(offset, new Object[] { type, payload });
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read segment log", e);
+        }
+        for (Long offset : pending.keySet()) {
+            outstanding.put(offset, new Delivery());
+        }
+        for (Map.Entry<Long, Object[]> record : pending.entrySet()) {
+            handler.handle(record.getKey(), (Byte) record.getValue()[0], (byte[]) record.getValue()[1]);
+        }
+        replayed = true;
+        return pending.size();
+    }
+
+    /**
+     * Hands every record that has been outstanding for {@code olderThanMillis}
+     * since it was last handed out to {@code handler} again. A record that has
+     * already been handed out {@code maxDeliveries} times goes to
+     * {@code deadLetter} instead and is acknowledged. Returns the number of
+     * records handed to either.
+     */
+    public int redeliver(long olderThanMillis, int maxDeliveries, RecordHandler handler, RecordHandler deadLetter) {
+        long now = System.currentTimeMillis();
+        List<Long> stale = new ArrayList<>();
+        outstanding.forEach((offset, delivery) -> {
+            if (now - delivery.deliveredAt >= olderThanMillis) {
+                stale.add(offset);
+            }
+        });
+        if (stale.isEmpty()) {
+            return 0;
+        }
+
+        View view;
+        synchronized (this) {
+            if (closed) {
+                return 0;
+            }
+            view = view();
+        }
+        int handed = 0;
+        Map<Long, ByteBuffer> mapped = new HashMap<>();
+        for (Long offset : stale) {
+            Delivery delivery = outstanding.get(offset);
+            if (delivery == null) {
+                continue; // acknowledged meanwhile
+            }
+            Long base = view.files().floorKey(offset);
+            ByteBuffer segment;
+            try {
+                segment = base == null ? null : base == view.liveBase() ? view.live()
+                        : mapped.computeIfAbsent(base, b -> map(view.files().get(b)));
+            } catch (UncheckedIOException e) {
+                segment = null;
+            }
+            if (segment == null) {
+                // The record can no longer be read, nothing to deliver
+                acknowledge(offset);
+                continue;
+            }
+            boolean[] found = { false };
+            readRecord(segment, (int) (offset - base), offset, (o, type, payload) -> {
+                found[0] = true;
+                if (delivery.attempts >= maxDeliveries) {
+                    deadLetter.handle(o, type, payload);
+                    acknowledge(o);
+                } else {
+                    delivery.attempts++;
+                    delivery.deliveredAt = now;
+                    handler.handle(o, type, payload);
+                }
+            });
+            if (found[0]) {
+                handed++;
+            } else {
+                acknowledge(offset);
+            }
+        }
+        return handed;
+    }
+
+    /**
+     * Persists the lowest outstanding offset and deletes the segments below
+     * it. With {@code force} the current segment is also flushed to disk.
+     */
+    public void checkpoint(boolean force) {
+        synchronized (checkpointLock) {
+            writeCheckpoint(force);
+        }
+    }
+
+    private void writeCheckpoint(boolean force) {
+        long low;
+        List<Path> obsolete = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (force) {
+                current.force();
+            }
+            Long first = outstanding.isEmpty() ? null : outstanding.firstKey();
+            low = first != null ? first : writeOffset;
+            if (!replayed) {
+                // Records left by the previous run are not in the outstanding
+                // set until replay() has run
+                low = Math.min(low, replayFrom);
+            }
+            var iterator = segments.headMap(currentBase, false).entrySet().iterator();
+            while (iterator.hasNext()) {
+                var entry = iterator.next();
+                if (entry.getKey() + segmentSize <= low) {
+                    obsolete.add(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+        try {
+            Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            Files.write(temp, ByteBuffer.allocate(8).putLong(low).array());
+            Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            for (Path segment : obsolete) {
+                Files.deleteIfExists(segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write segment log checkpoint", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        checkpoint(true);
+        synchronized (this) {
+            closed = true;
+        }
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .forEach(p -> segments.put(baseOf(p), p));
+        }
+
+        long checkpoint = 0L;
+        Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpointFile)) {
+            checkpoint = ByteBuffer.wrap(Files.readAllBytes(checkpointFile)).getLong();
+        }
+        if (segments.isEmpty()) {
+            checkpoint = 0L;
+        } else if (checkpoint < segments.firstKey()) {
+            checkpoint = segments.firstKey();
+        }
+
+        long[] end = { checkpoint };
+        scan(new View(segments, -1L, null), checkpoint, Long.MAX_VALUE, (offset, type, payload) -> end[0] = offset + HEADER_SIZE + payload.length);
+
+        replayFrom = checkpoint;
+        replayTo = end[0];
+        writeOffset = end[0];
+        long base = writeOffset - Math.floorMod(writeOffset, (long) segmentSize);
+
+        // Segments after the one holding the end of the log have no complete
+        // record in reach of a scan
+        for (Path stale : new ArrayList<>(segments.tailMap(base, false).values())) {
+            Files.deleteIfExists(stale);
+        }
+        segments.tailMap(base, false).clear();
+
+        roll(base);
+        // Anything after a torn record in the current segment is garbage
+        for (int position = (int) (writeOffset - currentBase); position < segmentSize; position++) {
+            current.put(position, (byte) 0);
+        }
+    }
+
+    private synchronized View view() {
+        return new View(new TreeMap<>(segments), currentBase, current != null ? current.duplicate() : null);
+    }
+
+    // Maps each segment once, not once per record
+    private void scan(View view, long from, long to, RecordHandler handler) throws IOException {
+        long offset = from;
+        Long mappedBase = null;
+        ByteBuffer segment = null;
+        while (offset < to) {
+            Long base = view.files().floorKey(offset);
+            if (base == null) {
+                return;
+            }
+            if (!base.equals(mappedBase)) {
+                segment = base == view.liveBase() && view.live() != null ? view.live()
+                        : read(view.files().get(base));
+                mappedBase = base;
+            }
+            // append() always leaves room for the end-of-segment marker
+            int length = readRecord(segment, (int) (offset - base), offset, handler);
+            if (length == END_OF_SEGMENT) {
+                if (!view.files().containsKey(base + segmentSize)) {
+                    return;
+                }
+                offset = base + segmentSize;
+                continue;
+            }
+            if (length == NO_RECORD) {
+                return;
+            }
+            offset += HEADER_SIZE + length;
+        }
+    }
+
+    /**
+     * Hands the record at {@code position} to the handler and returns its
+     * payload length, {@link #END_OF_SEGMENT}, or {@link #NO_RECORD} when there
+     * is no intact record (the end of the log, or a torn or corrupt one).
+     */
+    private int readRecord(ByteBuffer segment, int position, long offset, RecordHandler handler) {
+        if (position < 0 || position + 4 > segment.limit()) {
+            return NO_RECORD;
+        }
+        int length = segment.getInt(position);
+        if (length == END_OF_SEGMENT) {
+            return END_OF_SEGMENT;
+        }
+        if (length <= 0 || position + HEADER_SIZE + length > Math.min(segmentSize, segment.limit())) {
+            return NO_RECORD;
+        }
+        byte type = segment.get(position + 8);
+        byte[] payload = new byte[length];
+        segment.get(position + HEADER_SIZE, payload);
+        if (segment.getInt(position + 4) != checksum(type, payload)) {
+            return NO_RECORD;
+        }
+        handler.handle(offset, type, payload);
+        return length;
+    }
+
+    private ByteBuffer read(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), segmentSize));
+        }
+    }
+
+    private ByteBuffer map(Path segment) {
+        try {
+            return read(segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void roll(long base) {
+        Path file = segments.computeIfAbsent(base,
+                b -> directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, b, SEGMENT_SUFFIX)));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            current = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map segment " + file, e);
+        }
+        currentBase = base;
+        writeOffset = Math.max(writeOffset, base);
+    }
+
+    private static long baseOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int checksum(byte type, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.workflow_management_system.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Size-bounded map with least-recently-used eviction, split into independently
+ * locked stripes by key hash so concurrent readers of different keys rarely
+ * contend. Each stripe is an access-ordered {@link LinkedHashMap} holding at
+ * most {@code maxEntries / stripes} entries, so eviction is LRU per stripe
+ * rather than globally.
+ */
+public final class StripedLruMap<K, V> {
+
+    private final Stripe<K, V>[] stripes;
+    private final int mask;
+
+    @SuppressWarnings("unchecked")
+    public StripedLruMap(int maxEntries, int requestedStripes, Consumer<V> evictionListener) {
+        if (maxEntries < 1 || requestedStripes < 1) {
+            throw new IllegalArgumentException("maxEntries and stripes must be positive");
+        }
+        int count = Integer.highestOneBit(Math.min(requestedStripes, maxEntries));
+        this.stripes = new Stripe[count];
+        this.mask = count - 1;
+        int perStripe = Math.max(1, maxEntries / count);
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe<>(perStripe, evictionListener);
+        }
+    }
+
+    public V get(K key) {
+        Stripe<K, V> stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            return stripe.map.get(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void put(K key, V value) {
+        Stripe<K, V> stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.map.put(key, value);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void remove(K key) {
+        Stripe<K, V> stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.map.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void clear() {
+        for (Stripe<K, V> stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.map.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.map.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Stripe<K, V> stripeFor(K key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    private static final class Stripe<K, V> {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<K, V> map;
+
+        Stripe(int capacity, Consumer<V> evictionListener) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    if (size() > capacity) {
+                        evictionListener.accept(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
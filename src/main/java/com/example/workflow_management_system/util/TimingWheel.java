@@ -0,0 +1,147 @@
+package com.example.workflow_management_system.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel. Level 0 has {@code wheelSize} slots of
+ * {@code tickMillis}; every level above covers {@code wheelSize} times the
+ * span of the one below. A timer sits in the lowest level whose span reaches
+ * its deadline and moves down a level each time the slot it sits in comes up,
+ * so scheduling, cancelling and firing are O(1) regardless of how many timers
+ * are pending. Deadlines beyond the top level park in its last slot and are
+ * re-placed when that slot comes up.
+ *
+ * Timers never fire early: a deadline is rounded up to the next tick. Keys
+ * are unique; scheduling an existing key moves it. Thread-safe.
+ */
+public final class TimingWheel<K> {
+
+    private record Timer(long deadlineTick, int level, int slot) {
+    }
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final int levels;
+    private final List<List<Set<K>>> wheels;
+    private final Map<K, Timer> timers = new HashMap<>();
+    private final List<K> ready = new ArrayList<>();
+
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel geometry");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levels = levels;
+        this.wheels = new ArrayList<>(levels);
+        for (int level = 0; level < levels; level++) {
+            List<Set<K>> slots = new ArrayList<>(wheelSize);
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots.add(new LinkedHashSet<>());
+            }
+            wheels.add(slots);
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        place(key, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis));
+    }
+
+    public synchronized boolean cancel(K key) {
+        Timer timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        if (timer.level() < 0) {
+            ready.remove(key);
+        } else {
+            wheels.get(timer.level()).get(timer.slot()).remove(key);
+        }
+        return true;
+    }
+
+    public synchronized boolean contains(K key) {
+        return timers.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and returns the keys whose
+     * deadline has passed, in firing order.
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>(ready);
+        ready.clear();
+
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Pull down the timers of every higher level slot that starts now
+            for (int level = levels - 1; level >= 1; level--) {
+                long span = span(level);
+                if (currentTick % span == 0) {
+                    Set<K> bucket = wheels.get(level).get((int) ((currentTick / span) % wheelSize));
+                    List<K> cascading = new ArrayList<>(bucket);
+                    bucket.clear();
+                    for (K key : cascading) {
+                        place(key, timers.get(key).deadlineTick());
+                    }
+                }
+            }
+            Set<K> bucket = wheels.get(0).get((int) (currentTick % wheelSize));
+            expired.addAll(bucket);
+            bucket.clear();
+            expired.addAll(ready);
+            ready.clear();
+        }
+
+        for (K key : expired) {
+            timers.remove(key);
+        }
+        return expired;
+    }
+
+    private void place(K key, long deadlineTick) {
+        if (deadlineTick <= currentTick) {
+            ready.add(key);
+            timers.put(key, new Timer(deadlineTick, -1, -1));
+            return;
+        }
+        for (int level = 0; level < levels; level++) {
+            long span = span(level);
+            long distance = deadlineTick / span - currentTick / span;
+            if (distance < wheelSize) {
+                int slot = (int) ((deadlineTick / span) % wheelSize);
+                wheels.get(level).get(slot).add(key);
+                timers.put(key, new Timer(deadlineTick, level, slot));
+                return;
+            }
+        }
+        // Beyond the top level: park in its furthest slot and re-place later
+        int top = levels - 1;
+        long span = span(top);
+        int slot = (int) ((currentTick / span + wheelSize - 1) % wheelSize);
+        wheels.get(top).get(slot).add(key);
+        timers.put(key, new Timer(deadlineTick, top, slot));
+    }
+
+    private long span(int level) {
+        long span = 1;
+        for (int i = 0; i < level; i++) {
+            span *= wheelSize;
+        }
+        return span;
+    }
+}
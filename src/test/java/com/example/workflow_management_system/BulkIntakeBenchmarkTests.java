@@ -0,0 +1,111 @@
+package com.example.workflow_management_system;
+
+import com.example.workflow_management_system.dto.BulkRequestIntakeProgress;
+import com.example.workflow_management_system.model.*;
+import com.example.workflow_management_system.repository.*;
+import com.example.workflow_management_system.security.UserPrincipal;
+import com.example.workflow_management_system.service.RequestBulkIntakeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of RequestBulkIntakeService.ingest for ITEMS requests landing on
+ * a step with APPROVERS approvers.
+ * Skipped in the normal build, run with:
+ * mvn test -Dtest=BulkIntakeBenchmarkTests -Dbenchmark=true
+ */
+@SpringBootTest(properties = "app.requests.bulk-intake-batch-size=" + BulkIntakeBenchmarkTests.BATCH_SIZE)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BulkIntakeBenchmarkTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(BulkIntakeBenchmarkTests.class);
+
+	static final int BATCH_SIZE = 500;
+	private static final int ITEMS = 20_000;
+	private static final int APPROVERS = 10;
+	// Well below what in-memory H2 manages; only catches per-row regressions
+	private static final double MIN_REQUESTS_PER_SECOND = 200;
+
+	@Autowired
+	private TenantRepository tenantRepository;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private WorkflowRepository workflowRepository;
+	@Autowired
+	private WorkflowStepRepository workflowStepRepository;
+	@Autowired
+	private RoleNotificationRepository roleNotificationRepository;
+	@Autowired
+	private RequestBulkIntakeService requestBulkIntakeService;
+
+	@AfterEach
+	void clearSecurityContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void ingestThroughput() throws Exception {
+		Workflow workflow = seed();
+
+		StringBuilder ndjson = new StringBuilder(ITEMS * 48);
+		for (int i = 0; i < ITEMS; i++) {
+			ndjson.append("{\"workflowId\":").append(workflow.getId()).append(",\"payload\":{\"n\":").append(i)
+					.append("}}\n");
+		}
+		byte[] input = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+
+		long start = System.nanoTime();
+		BulkRequestIntakeProgress summary = requestBulkIntakeService.ingest(new ByteArrayInputStream(input),
+				new ByteArrayOutputStream());
+		double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+		assertEquals(ITEMS, summary.created());
+		assertEquals(0, summary.failed());
+		// One broadcast per workflow group of a batch, not one per request
+		assertEquals((ITEMS + BATCH_SIZE - 1) / BATCH_SIZE, roleNotificationRepository.count());
+
+		double rate = ITEMS / seconds;
+		logger.info("ingest: {} requests, {} assignments in {} s -> {} requests/s", ITEMS, (long) ITEMS * APPROVERS,
+				String.format("%.3f", seconds), String.format("%.0f", rate));
+		assertTrue(rate >= MIN_REQUESTS_PER_SECOND, "Bulk intake too slow: " + Math.round(rate) + " requests/s");
+	}
+
+	private Workflow seed() {
+		Tenant tenant = tenantRepository.save(new Tenant("bulk-benchmark-tenant", TenantStatus.ACTIVE));
+
+		User submitter = userRepository
+				.save(new User("bulk_submitter", "bulk_submitter@test.com", null, UserRole.USER, tenant, true));
+		List<User> approvers = new ArrayList<>(APPROVERS);
+		for (int i = 0; i < APPROVERS; i++) {
+			approvers.add(new User("bulk_approver_" + i, "bulk_approver_" + i + "@test.com", null,
+					UserRole.TENANT_MANAGER, tenant, true));
+		}
+		userRepository.saveAll(approvers);
+
+		Workflow workflow = workflowRepository.save(new Workflow("bulk-benchmark", null, tenant, true));
+		workflowStepRepository.save(new WorkflowStep(workflow, 1, "Submit", UserRole.USER, false));
+		workflowStepRepository.save(new WorkflowStep(workflow, 2, "Review", UserRole.TENANT_MANAGER, false));
+
+		UserPrincipal principal = UserPrincipal.create(submitter);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+		return workflow;
+	}
+}
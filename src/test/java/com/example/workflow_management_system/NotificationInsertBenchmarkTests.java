@@ -0,0 +1,104 @@
+package com.example.workflow_management_system;
+
+import com.example.workflow_management_system.model.*;
+import com.example.workflow_management_system.repository.*;
+import com.example.workflow_management_system.service.NotificationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cost of NotificationService.createNotificationsForRole for a role with
+ * USERS members.
+ * Skipped in the normal build, run with:
+ * mvn test -Dtest=NotificationInsertBenchmarkTests -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.properties.hibernate.jdbc.batch_size=50",
+		"spring.jpa.properties.hibernate.order_inserts=true" })
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class NotificationInsertBenchmarkTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(NotificationInsertBenchmarkTests.class);
+
+	private static final int USERS = 2000;
+	private static final int ROUNDS = 5;
+
+	@Autowired
+	private TenantRepository tenantRepository;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private WorkflowRepository workflowRepository;
+	@Autowired
+	private WorkflowStepRepository workflowStepRepository;
+	@Autowired
+	private RequestRepository requestRepository;
+	@Autowired
+	private RoleNotificationRepository roleNotificationRepository;
+	@Autowired
+	private NotificationService notificationService;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void createNotificationsForRoleThroughput() {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		Request request = tx.execute(status -> seed());
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// Warm up JIT and connection pool
+		notificationService.createNotificationsForRole("warm-up", "ACTION", request, UserRole.USER.name());
+
+		long totalNanos = 0;
+		long totalStatements = 0;
+		for (int i = 0; i < ROUNDS; i++) {
+			statistics.clear();
+			long start = System.nanoTime();
+			notificationService.createNotificationsForRole("round " + i, "ACTION", request, UserRole.USER.name());
+			totalNanos += System.nanoTime() - start;
+			totalStatements += statistics.getPrepareStatementCount();
+		}
+
+		// One broadcast row per call, merged into each member's list on read
+		assertEquals(ROUNDS + 1, roleNotificationRepository.count());
+
+		double seconds = totalNanos / 1_000_000_000.0;
+		logger.info("createNotificationsForRole: {} recipients in {} s -> {} recipients/s, {} statements per round",
+				(long) USERS * ROUNDS, String.format("%.3f", seconds), String.format("%.0f", USERS * ROUNDS / seconds),
+				String.format("%.1f", totalStatements / (double) ROUNDS));
+	}
+
+	private Request seed() {
+		Tenant tenant = tenantRepository.save(new Tenant("benchmark-tenant", TenantStatus.ACTIVE));
+
+		List<User> users = new ArrayList<>(USERS);
+		for (int i = 0; i < USERS; i++) {
+			users.add(new User("bench_user_" + i, "bench_user_" + i + "@test.com", null, UserRole.USER, tenant, true));
+		}
+		userRepository.saveAll(users);
+
+		Workflow workflow = workflowRepository.save(new Workflow("benchmark", null, tenant, true));
+		WorkflowStep step = workflowStepRepository
+				.save(new WorkflowStep(workflow, 1, "Review", UserRole.USER, false));
+		return requestRepository.save(new Request(workflow, users.get(0), step, RequestStatus.IN_PROGRESS,
+				tenant.getId(), null));
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.workflow_management_system.config;
+
+import com.example.workflow_management_system.service.JobLeaseService;
+import com.example.workflow_management_system.util.TimeSortableIds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IdGenerationConfigTests {
+
+	// Leases this node may take; all others are held elsewhere
+	private final Set<String> free = new HashSet<>();
+
+	private IdGenerationConfig config;
+	private int previousNodeId;
+
+	@BeforeEach
+	void setUp() {
+		previousNodeId = currentNodeId();
+		JobLeaseService jobLeaseService = mock(JobLeaseService.class);
+		when(jobLeaseService.tryAcquire(anyString(), any(Duration.class)))
+				.thenAnswer(invocation -> free.contains(invocation.<String>getArgument(0)));
+		config = new IdGenerationConfig(jobLeaseService);
+		ReflectionTestUtils.setField(config, "nodeId", -1);
+		ReflectionTestUtils.setField(config, "leaseSeconds", 300L);
+	}
+
+	// TimeSortableIds is static, put back whatever the other tests run with
+	@AfterEach
+	void restoreNodeId() {
+		if (previousNodeId >= 0) {
+			TimeSortableIds.configureNodeId(previousNodeId);
+		} else {
+			TimeSortableIds.clearNodeId();
+		}
+	}
+
+	@Test
+	void leasesTheFirstFreeNodeId() {
+		free.add("id-node-2");
+		free.add("id-node-5");
+
+		config.init();
+
+		assertEquals(2, currentNodeId());
+	}
+
+	@Test
+	void switchesToAnotherNodeIdWhenTheLeaseIsTakenOver() {
+		free.add("id-node-0");
+		config.init();
+
+		free.clear();
+		free.add("id-node-7");
+		config.renewLease();
+
+		assertEquals(7, currentNodeId());
+	}
+
+	@Test
+	void resumesOnceANodeIdIsFreedAfterStopping() {
+		free.add("id-node-0");
+		config.init();
+
+		// Lease lost and nothing free: ids stop
+		free.clear();
+		config.renewLease();
+		assertThrows(IllegalStateException.class, TimeSortableIds::next);
+		config.renewLease();
+		assertThrows(IllegalStateException.class, TimeSortableIds::next);
+
+		free.add("id-node-3");
+		config.renewLease();
+
+		assertEquals(3, currentNodeId());
+	}
+
+	@Test
+	void failsStartupWhenEveryNodeIdIsTaken() {
+		assertThrows(IllegalStateException.class, config::init);
+	}
+
+	// Node bits of a fresh id, or -1 while none is configured
+	private static int currentNodeId() {
+		try {
+			return (int) ((TimeSortableIds.next() >> 7) & TimeSortableIds.MAX_NODE_ID);
+		} catch (IllegalStateException e) {
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.example.workflow_management_system.controller;
+
+import com.example.workflow_management_system.service.ExportJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Range and If-Range handling of the export download, against a spooled
+ * file and a mocked job service.
+ */
+class ExportJobControllerTests {
+
+	private static final long JOB_ID = 42L;
+	private static final String CONTENT = "0123456789abcdefghij";
+	private static final String ETAG = "\"42-20\"";
+
+	@TempDir
+	Path directory;
+
+	private ExportJobController controller;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		Path file = Files.writeString(directory.resolve("requests_42.csv.gz"), CONTENT, StandardCharsets.US_ASCII);
+		ExportJobService exportJobService = mock(ExportJobService.class);
+		when(exportJobService.getDownload(JOB_ID))
+				.thenReturn(new ExportJobService.Download(file, "requests_42.csv.gz", CONTENT.length(), ETAG));
+		controller = new ExportJobController(exportJobService, null, null, null, null);
+	}
+
+	@Test
+	void sendsTheWholeFileWithoutARange() throws IOException {
+		MockHttpServletResponse response = download(null, null);
+
+		assertEquals(200, response.getStatus());
+		assertEquals(CONTENT, response.getContentAsString());
+		assertEquals(ETAG, response.getHeader(HttpHeaders.ETAG));
+		assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+	}
+
+	@Test
+	void sendsARangeAsPartialContent() throws IOException {
+		MockHttpServletResponse response = download("bytes=10-", null);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("abcdefghij", response.getContentAsString());
+		assertEquals("bytes 10-19/20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertEquals(10, response.getContentLengthLong());
+	}
+
+	@Test
+	void sendsTheSuffixRangeWhenIfRangeMatches() throws IOException {
+		MockHttpServletResponse response = download("bytes=-5", ETAG);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("fghij", response.getContentAsString());
+	}
+
+	@Test
+	void sendsTheWholeFileWhenIfRangeDoesNotMatch() throws IOException {
+		MockHttpServletResponse response = download("bytes=10-", "\"42-19\"");
+
+		assertEquals(200, response.getStatus());
+		assertEquals(CONTENT, response.getContentAsString());
+		assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+	}
+
+	@Test
+	void rejectsAStartPastTheEnd() throws IOException {
+		MockHttpServletResponse response = download("bytes=20-", null);
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */20", response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertEquals("", response.getContentAsString());
+	}
+
+	@Test
+	void sendsMultipleRangesAsTheWholeFile() throws IOException {
+		MockHttpServletResponse response = download("bytes=0-1,5-6", null);
+
+		assertEquals(200, response.getStatus());
+		assertEquals(CONTENT, response.getContentAsString());
+	}
+
+	private MockHttpServletResponse download(String range, String ifRange) throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/exports/" + JOB_ID + "/download");
+		if (range != null) {
+			request.addHeader(HttpHeaders.RANGE, range);
+		}
+		if (ifRange != null) {
+			request.addHeader(HttpHeaders.IF_RANGE, ifRange);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller.download(JOB_ID, request, response);
+		return response;
+	}
+}
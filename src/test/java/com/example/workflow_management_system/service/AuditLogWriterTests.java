@@ -0,0 +1,123 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.event.AuditEvent;
+import com.example.workflow_management_system.event.EventJournal;
+import com.example.workflow_management_system.util.TimeSortableIds;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The single writer thread against a mocked JdbcTemplate: events that cannot
+ * be turned into rows are left to the journal and later ones still go out.
+ */
+class AuditLogWriterTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final EventJournal eventJournal = mock(EventJournal.class);
+	// entity_id of every row handed to batchUpdate
+	private final List<Object> written = new CopyOnWriteArrayList<>();
+
+	private AuditLogWriter writer;
+	private int previousNodeId;
+
+	@BeforeEach
+	void setUp() {
+		previousNodeId = currentNodeId();
+		TimeSortableIds.configureNodeId(1);
+		when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+			List<Object[]> rows = invocation.getArgument(1);
+			rows.forEach(row -> written.add(row[2]));
+			return new int[rows.size()];
+		});
+
+		writer = new AuditLogWriter(jdbcTemplate, new ObjectMapper(), eventJournal, meterRegistry, 16);
+		ReflectionTestUtils.setField(writer, "batchSize", 10);
+		ReflectionTestUtils.setField(writer, "flushIntervalMs", 10L);
+		ReflectionTestUtils.setField(writer, "enqueueTimeoutMs", 100L);
+		ReflectionTestUtils.setField(writer, "maxRetries", 0);
+		ReflectionTestUtils.setField(writer, "retryBackoffMs", 1L);
+		writer.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		writer.stop();
+		if (previousNodeId >= 0) {
+			TimeSortableIds.configureNodeId(previousNodeId);
+		} else {
+			TimeSortableIds.clearNodeId();
+		}
+	}
+
+	@Test
+	void skipsAnEventWithoutATimestampAndWritesTheRest() throws InterruptedException {
+		writer.enqueue(event("1"), 10L);
+		writer.enqueue(new AuditEvent("Request", "2", "CREATE", "alice", 1L, Map.of(), null), 20L);
+		writer.enqueue(event("3"), 30L);
+
+		// Acknowledged right after the batch is written
+		verify(eventJournal, timeout(5000)).acknowledge(30L);
+
+		assertEquals(List.of("1", "3"), written);
+		verify(eventJournal).acknowledge(10L);
+		verify(eventJournal, never()).acknowledge(20L);
+		assertEquals(1.0, meterRegistry.counter("audit_events_failed_total").count());
+	}
+
+	@Test
+	void keepsWritingAfterIdGenerationFailed() throws InterruptedException {
+		TimeSortableIds.clearNodeId();
+		writer.enqueue(event("lost"), 10L);
+		waitFor(() -> meterRegistry.counter("audit_events_failed_total").count() == 1.0);
+
+		TimeSortableIds.configureNodeId(1);
+		writer.enqueue(event("later"), 20L);
+		verify(eventJournal, timeout(5000)).acknowledge(20L);
+
+		assertEquals(List.of("later"), written);
+		verify(eventJournal, never()).acknowledge(10L);
+	}
+
+	private static AuditEvent event(String entityId) {
+		return new AuditEvent("Request", entityId, "CREATE", "alice", 1L, Map.of("k", "v"));
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "timed out");
+			Thread.sleep(10);
+		}
+	}
+
+	// Node bits of a fresh id, or -1 while none is configured
+	private static int currentNodeId() {
+		try {
+			return (int) ((TimeSortableIds.next() >> 7) & TimeSortableIds.MAX_NODE_ID);
+		} catch (IllegalStateException e) {
+			return -1;
+		}
+	}
+}
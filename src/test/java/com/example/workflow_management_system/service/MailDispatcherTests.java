@@ -0,0 +1,276 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.model.MailStatus;
+import com.example.workflow_management_system.model.QueuedMail;
+import com.example.workflow_management_system.repository.QueuedMailRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MailDispatcher against an in-process SMTP stub. The scheduled poll only
+ * runs once at startup, the tests drive it themselves.
+ */
+@SpringBootTest(properties = {
+		"app.mail.dispatcher.poll-interval-ms=3600000",
+		"app.mail.dispatcher.batch-size=20",
+		"app.mail.dispatcher.messages-per-connection=3",
+		"app.mail.dispatcher.max-connections-per-domain=2",
+		"app.mail.dispatcher.backoff-initial-seconds=30"
+})
+class MailDispatcherTests {
+
+	private static final SmtpStub smtp = new SmtpStub();
+
+	@Autowired
+	private MailDispatcher mailDispatcher;
+	@Autowired
+	private QueuedMailRepository queuedMailRepository;
+
+	@DynamicPropertySource
+	static void smtpPort(DynamicPropertyRegistry registry) {
+		registry.add("spring.mail.port", smtp::port);
+	}
+
+	@AfterAll
+	static void stopSmtp() {
+		smtp.close();
+	}
+
+	@BeforeEach
+	void reset() {
+		queuedMailRepository.deleteAll();
+		smtp.reset();
+	}
+
+	@AfterEach
+	void openGate() {
+		smtp.gate.countDown();
+	}
+
+	@Test
+	void sendsOneConnectionPerBatchAndDeletesSentRows() throws Exception {
+		for (int i = 0; i < 7; i++) {
+			enqueue("user" + i + "@example.com");
+		}
+
+		drain();
+
+		assertEquals(3, smtp.connections.get());
+		assertEquals(7, smtp.delivered.size());
+		assertEquals(0, queuedMailRepository.count());
+	}
+
+	@Test
+	void retriesTransientFailuresWithBackoff() {
+		QueuedMail mail = enqueue("busy@example.com");
+
+		LocalDateTime before = LocalDateTime.now();
+		mailDispatcher.sendBatch(List.of(mail));
+
+		QueuedMail retried = queuedMailRepository.findById(mail.getId()).orElseThrow();
+		assertEquals(MailStatus.PENDING, retried.getStatus());
+		assertEquals(1, retried.getAttempts());
+		assertNotNull(retried.getLastError());
+		// 30 s +-20%
+		assertFalse(retried.getNextAttemptAt().isBefore(before.plusSeconds(24)));
+		assertFalse(retried.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(36)));
+		assertTrue(smtp.delivered.isEmpty());
+	}
+
+	@Test
+	void failsRejectedRecipientsAtOnceAndSendsTheRestOfTheBatch() {
+		QueuedMail rejected = enqueue("reject@example.com");
+		QueuedMail accepted = enqueue("ok@example.com");
+
+		mailDispatcher.sendBatch(List.of(rejected, accepted));
+
+		QueuedMail failed = queuedMailRepository.findById(rejected.getId()).orElseThrow();
+		assertEquals(MailStatus.FAILED, failed.getStatus());
+		assertEquals(1, failed.getAttempts());
+		assertFalse(queuedMailRepository.existsById(accepted.getId()));
+		assertEquals(List.of("ok@example.com"), smtp.delivered);
+		assertEquals(1, smtp.connections.get());
+	}
+
+	@Test
+	void aSaturatedDomainDoesNotHoldUpTheOthers() throws Exception {
+		// More backlog than one poll takes, all older than the other mail
+		for (int i = 0; i < 30; i++) {
+			enqueue("user" + i + "@slow.example");
+		}
+		enqueue("user@fast.example");
+		smtp.gate = new CountDownLatch(1);
+
+		mailDispatcher.poll();
+		waitFor(() -> smtp.delivered.contains("user@fast.example"));
+		// Both connections of slow.example are still held
+		mailDispatcher.poll();
+		assertEquals(3, smtp.connections.get());
+
+		smtp.gate.countDown();
+		drain();
+		assertEquals(31, smtp.delivered.size());
+	}
+
+	private QueuedMail enqueue(String recipient) {
+		return queuedMailRepository.save(new QueuedMail(recipient, "Subject", "Body", false));
+	}
+
+	private void drain() throws InterruptedException {
+		waitFor(() -> {
+			mailDispatcher.poll();
+			return queuedMailRepository.count() == 0;
+		});
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "timed out");
+			Thread.sleep(50);
+		}
+	}
+
+	/**
+	 * Just enough SMTP for JavaMail: accepts every recipient except
+	 * busy@... (451, transient) and reject@... (550, permanent). While the gate
+	 * is closed RCPT to slow.example blocks.
+	 */
+	static final class SmtpStub implements Closeable {
+
+		final AtomicInteger connections = new AtomicInteger();
+		final List<String> delivered = new CopyOnWriteArrayList<>();
+		volatile CountDownLatch gate = new CountDownLatch(0);
+
+		private final ServerSocket server;
+
+		SmtpStub() {
+			try {
+				server = new ServerSocket(0);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			Thread acceptor = new Thread(this::accept, "smtp-stub");
+			acceptor.setDaemon(true);
+			acceptor.start();
+		}
+
+		int port() {
+			return server.getLocalPort();
+		}
+
+		void reset() {
+			connections.set(0);
+			delivered.clear();
+			gate = new CountDownLatch(0);
+		}
+
+		private void accept() {
+			while (!server.isClosed()) {
+				try {
+					Socket socket = server.accept();
+					connections.incrementAndGet();
+					Thread session = new Thread(() -> serve(socket), "smtp-stub-session");
+					session.setDaemon(true);
+					session.start();
+				} catch (IOException e) {
+					return;
+				}
+			}
+		}
+
+		private void serve(Socket socket) {
+			try (socket) {
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+				OutputStream out = socket.getOutputStream();
+				reply(out, "220 stub ESMTP");
+				List<String> recipients = new ArrayList<>();
+				String line;
+				while ((line = in.readLine()) != null) {
+					String command = line.toUpperCase(Locale.ROOT);
+					if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+						reply(out, "250 stub");
+					} else if (command.startsWith("MAIL FROM")) {
+						recipients.clear();
+						reply(out, "250 OK");
+					} else if (command.startsWith("RCPT TO")) {
+						String recipient = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+						if (recipient.endsWith("@slow.example")) {
+							gate.await(30, TimeUnit.SECONDS);
+						}
+						if (recipient.startsWith("busy@")) {
+							reply(out, "451 Try again later");
+						} else if (recipient.startsWith("reject@")) {
+							reply(out, "550 No such user");
+						} else {
+							recipients.add(recipient);
+							reply(out, "250 OK");
+						}
+					} else if (command.equals("DATA")) {
+						reply(out, "354 End with .");
+						while ((line = in.readLine()) != null && !line.equals(".")) {
+							// Message content is not checked
+						}
+						delivered.addAll(recipients);
+						reply(out, "250 Queued");
+					} else if (command.equals("QUIT")) {
+						reply(out, "221 Bye");
+						return;
+					} else {
+						// RSET, NOOP
+						reply(out, "250 OK");
+					}
+				}
+			} catch (IOException e) {
+				// Client went away
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private static void reply(OutputStream out, String line) throws IOException {
+			out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+			out.flush();
+		}
+
+		@Override
+		public void close() {
+			try {
+				server.close();
+			} catch (IOException e) {
+				// Already closed
+			}
+		}
+	}
+}
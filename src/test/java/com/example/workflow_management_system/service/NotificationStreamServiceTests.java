@@ -0,0 +1,88 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NotificationStreamServiceTests {
+
+	private static final int MAX_PER_USER = 3;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final NotificationStreamService service = newService();
+
+	@Test
+	void rejectsConnectionsOverThePerUserLimit() {
+		for (int i = 0; i < MAX_PER_USER; i++) {
+			assertNotNull(service.connect(principal(1L), 0));
+		}
+
+		ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+				() -> service.connect(principal(1L), 0));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatusCode());
+		// Other users have their own limit
+		assertNotNull(service.connect(principal(2L), 0));
+	}
+
+	@Test
+	void concurrentConnectsOfOneUserStayWithinTheLimit() throws Exception {
+		int attempts = 16;
+		ExecutorService executor = Executors.newFixedThreadPool(attempts);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < attempts; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					try {
+						service.connect(principal(1L), 0);
+						return true;
+					} catch (ResponseStatusException e) {
+						return false;
+					}
+				}));
+			}
+			start.countDown();
+
+			int connected = 0;
+			for (Future<Boolean> result : results) {
+				if (result.get(10, TimeUnit.SECONDS)) {
+					connected++;
+				}
+			}
+			assertEquals(MAX_PER_USER, connected);
+			assertEquals(MAX_PER_USER, meterRegistry.get("notification_stream_connections").gauge().value());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private NotificationStreamService newService() {
+		NotificationStreamService streamService = new NotificationStreamService(
+				new UnreadNotificationCounter(meterRegistry, 100, 4, 60), Runnable::run, meterRegistry);
+		ReflectionTestUtils.setField(streamService, "timeoutMillis", 60_000L);
+		ReflectionTestUtils.setField(streamService, "bufferSize", 16);
+		ReflectionTestUtils.setField(streamService, "maxConnectionsPerUser", MAX_PER_USER);
+		return streamService;
+	}
+
+	private static UserPrincipal principal(Long userId) {
+		return new UserPrincipal(userId, "user" + userId, "user" + userId + "@test.com", null, "USER", 10L,
+				"tenant", true, List.of());
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.workflow_management_system.service;
+
+import com.example.workflow_management_system.model.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UnreadNotificationCounterTests {
+
+	private static final Long USER = 1L;
+	private static final Long TENANT = 10L;
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void servesCachedCountsWithinTheTtl() {
+		UnreadNotificationCounter counter = counter(60);
+
+		assertEquals(5, counter.getUnread(USER, TENANT, UserRole.USER, this::load));
+		counter.addForUser(USER, 2);
+		counter.addRoleBroadcast(TENANT, UserRole.USER);
+		counter.addRoleBroadcast(TENANT, UserRole.TENANT_MANAGER);
+
+		assertEquals(8, counter.getUnread(USER, TENANT, UserRole.USER, this::load));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void reloadsOnceTheTtlHasPassed() {
+		UnreadNotificationCounter counter = counter(0);
+
+		counter.getUnread(USER, TENANT, UserRole.USER, this::load);
+		counter.addForUser(USER, 2);
+
+		// The reload replaces the local adjustments with the database count
+		assertEquals(5, counter.getUnread(USER, TENANT, UserRole.USER, this::load));
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void reloadsWhenTheRoleChanged() {
+		UnreadNotificationCounter counter = counter(60);
+
+		counter.getUnread(USER, TENANT, UserRole.USER, this::load);
+		counter.getUnread(USER, TENANT, UserRole.TENANT_MANAGER, this::load);
+
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void ignoresUpdatesForUsersThatAreNotCached() {
+		UnreadNotificationCounter counter = counter(60);
+
+		counter.addForUser(USER, 3);
+
+		assertEquals(-1, counter.getCachedUnread(USER));
+		assertEquals(5, counter.getUnread(USER, TENANT, UserRole.USER, this::load));
+	}
+
+	@Test
+	void evictsTheLeastRecentlyReadUser() {
+		UnreadNotificationCounter counter = new UnreadNotificationCounter(new SimpleMeterRegistry(), 2, 1, 60);
+
+		counter.getUnread(1L, TENANT, UserRole.USER, this::load);
+		counter.getUnread(2L, TENANT, UserRole.USER, this::load);
+		counter.getUnread(3L, TENANT, UserRole.USER, this::load);
+
+		assertEquals(-1, counter.getCachedUnread(1L));
+		assertEquals(5, counter.getCachedUnread(3L));
+	}
+
+	private UnreadNotificationCounter counter(long ttlSeconds) {
+		return new UnreadNotificationCounter(new SimpleMeterRegistry(), 100, 4, ttlSeconds);
+	}
+
+	private long load() {
+		loads.incrementAndGet();
+		return 5;
+	}
+}
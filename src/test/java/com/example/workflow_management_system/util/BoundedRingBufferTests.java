@@ -0,0 +1,116 @@
+package com.example.workflow_management_system.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedRingBufferTests {
+
+	@Test
+	void roundsCapacityUpToAPowerOfTwo() {
+		assertEquals(2, new BoundedRingBuffer<Integer>(2).capacity());
+		assertEquals(8, new BoundedRingBuffer<Integer>(5).capacity());
+		assertEquals(8, new BoundedRingBuffer<Integer>(8).capacity());
+		assertThrows(IllegalArgumentException.class, () -> new BoundedRingBuffer<Integer>(1));
+	}
+
+	@Test
+	void rejectsOffersWhenFullUntilDrained() {
+		BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(4);
+		for (int i = 0; i < 4; i++) {
+			assertTrue(buffer.offer(i));
+		}
+		assertFalse(buffer.offer(4));
+		assertEquals(4, buffer.size());
+
+		List<Integer> drained = new ArrayList<>();
+		assertEquals(1, buffer.drainTo(drained, 1));
+		assertTrue(buffer.offer(4));
+		assertFalse(buffer.offer(5));
+
+		buffer.drainTo(drained, 10);
+		assertEquals(List.of(0, 1, 2, 3, 4), drained);
+		assertEquals(0, buffer.size());
+	}
+
+	@Test
+	void keepsFifoOrderAcrossManyWrapArounds() {
+		BoundedRingBuffer<Integer> buffer = new BoundedRingBuffer<>(4);
+		List<Integer> drained = new ArrayList<>();
+		int next = 0;
+		// Uneven offer/drain sizes so head and tail wrap at different slots
+		for (int round = 0; round < 1000; round++) {
+			int offers = 1 + round % 4;
+			for (int i = 0; i < offers; i++) {
+				assertTrue(buffer.offer(next++));
+			}
+			buffer.drainTo(drained, 1 + (round * 7) % 4);
+		}
+		buffer.drainTo(drained, Integer.MAX_VALUE);
+
+		assertEquals(next, drained.size());
+		for (int i = 0; i < drained.size(); i++) {
+			assertEquals(i, drained.get(i));
+		}
+	}
+
+	@Test
+	void deliversEveryItemOfConcurrentProducersExactlyOnceInProducerOrder() throws Exception {
+		int producers = 4;
+		int perProducer = 20_000;
+		BoundedRingBuffer<long[]> buffer = new BoundedRingBuffer<>(64);
+		ExecutorService executor = Executors.newFixedThreadPool(producers);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int p = 0; p < producers; p++) {
+				long producer = p;
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (long i = 0; i < perProducer; i++) {
+						// Yield rather than spin so the consumer runs on small machines too
+						while (!buffer.offer(new long[] { producer, i })) {
+							Thread.yield();
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+
+			long[] expectedNext = new long[producers];
+			List<long[]> drained = new ArrayList<>();
+			long received = 0;
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+			while (received < (long) producers * perProducer && System.nanoTime() < deadline) {
+				drained.clear();
+				if (buffer.drainTo(drained, 32) == 0) {
+					Thread.yield();
+				}
+				for (long[] item : drained) {
+					assertEquals(expectedNext[(int) item[0]]++, item[1], "out of order for producer " + item[0]);
+				}
+				received += drained.size();
+			}
+			for (Future<?> future : futures) {
+				future.get(5, TimeUnit.SECONDS);
+			}
+
+			assertEquals((long) producers * perProducer, received);
+			assertEquals(0, buffer.size());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.example.workflow_management_system.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ByteRangeTests {
+
+	private static final long SIZE = 100;
+
+	@Test
+	void parsesClosedAndOpenEndedRanges() {
+		assertEquals(new ByteRange(0, 9), ByteRange.parse("bytes=0-9", SIZE));
+		assertEquals(new ByteRange(90, 99), ByteRange.parse("bytes=90-", SIZE));
+		assertEquals(10, ByteRange.parse("bytes=0-9", SIZE).length());
+	}
+
+	@Test
+	void clampsTheEndToTheResource() {
+		assertEquals(new ByteRange(50, 99), ByteRange.parse("bytes=50-500", SIZE));
+	}
+
+	@Test
+	void suffixRangesCountFromTheEnd() {
+		assertEquals(new ByteRange(90, 99), ByteRange.parse("bytes=-10", SIZE));
+		// Longer than the resource: all of it
+		assertEquals(new ByteRange(0, 99), ByteRange.parse("bytes=-500", SIZE));
+		assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=-0", SIZE));
+		assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=-10", 0));
+	}
+
+	@Test
+	void startPastTheEndIsUnsatisfiable() {
+		assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=100-", SIZE));
+		assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=150-200", SIZE));
+	}
+
+	@Test
+	void multipleRangesAreServedInFull() {
+		assertNull(ByteRange.parse("bytes=0-9,20-29", SIZE));
+		assertNull(ByteRange.parse("bytes=0-9, -5", SIZE));
+	}
+
+	@Test
+	void ignoresHeadersThatDoNotParse() {
+		assertNull(ByteRange.parse(null, SIZE));
+		assertNull(ByteRange.parse("items=0-9", SIZE));
+		assertNull(ByteRange.parse("bytes=abc-", SIZE));
+		assertNull(ByteRange.parse("bytes=9-0", SIZE));
+		assertNull(ByteRange.parse("bytes=5", SIZE));
+	}
+}
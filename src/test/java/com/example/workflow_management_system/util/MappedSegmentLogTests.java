@@ -0,0 +1,177 @@
+package com.example.workflow_management_system.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedSegmentLogTests {
+
+	// Room for a handful of records per segment
+	private static final int SEGMENT_SIZE = 128;
+	private static final byte TYPE = 1;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void rollsOverSegmentsAndReplaysEverythingInOrder() throws IOException {
+		try (MappedSegmentLog log = MappedSegmentLog.open(directory, SEGMENT_SIZE)) {
+			for (int i = 0; i < 40; i++) {
+				log.append(TYPE, payload(i));
+			}
+		}
+		assertTrue(segmentCount() > 1);
+
+		MappedSegmentLog reopened = MappedSegmentLog.open(directory, SEGMENT_SIZE);
+		List<String> replayed = replay(reopened);
+		reopened.close();
+
+		assertEquals(40, replayed.size());
+		for (int i = 0; i < 40; i++) {
+			assertEquals("record-" + i, replayed.get(i));
+		}
+	}
+
+	@Test
+	void doesNotReplayAcknowledgedRecords() {
+		try (MappedSegmentLog log = MappedSegmentLog.open(directory, SEGMENT_SIZE)) {
+			for (int i = 0; i < 10; i++) {
+				long offset = log.append(TYPE, payload(i));
+				// Out of order: the oldest record stays outstanding
+				if (i % 2 == 1) {
+					log.acknowledge(offset);
+				}
+			}
+			assertEquals(5, log.outstandingCount());
+		}
+
+		MappedSegmentLog reopened = MappedSegmentLog.open(directory, SEGMENT_SIZE);
+		assertEquals(List.of("record-0", "record-2", "record-4", "record-6", "record-8"), replay(reopened));
+		reopened.close();
+	}
+
+	@Test
+	void replayedRecordsStayOutstandingUntilAcknowledged() {
+		try (MappedSegmentLog log = MappedSegmentLog.open(directory, SEGMENT_SIZE)) {
+			log.append(TYPE, payload(0));
+			log.append(TYPE, payload(1));
+		}
+
+		try (MappedSegmentLog log = MappedSegmentLog.open(directory, SEGMENT_SIZE)) {
+			List<Long> offsets = new ArrayList<>();
+			log.replay((offset, type, payload) -> offsets.add(offset));
+			assertEquals(2, log.outstandingCount());
+			log.acknowledge(offsets.get(0));
+		}
+
+		MappedSegmentLog reopened = MappedSegmentLog.open(directory, SEGMENT_SIZE);
+		assertEquals(List.of("record-1"), replay(reopened));
+		reopened.close();
+	}
+
+	@Test
+	void deletesSegmentsBelowTheCheckpoint() throws IOException {
+		try (MappedSegmentLog log = MappedSegmentLog.open(directory, SEGMENT_SIZE)) {
+			// Until then the checkpoint holds on to whatever the last run left
+			replay(log);
+			for (int i = 0; i < 40; i++) {
+				log.acknowledge(log.append(TYPE, payload(i)));
+			}
+			int before = segmentCount();
+			log.checkpoint(true);
+			assertTrue(segmentCount() < before);
+			assertEquals(0, log.outstandingCount());
+		}
+
+		MappedSegmentLog reopened = MappedSegmentLog.open(directory, SEGMENT_SIZE);
+		assertEquals(List.of(), replay(reopened));
+		reopened.close();
+	}
+
+	@Test
+	void stopsAtACorruptRecordAndAppendsOverIt() throws IOException {
+		long second;
+		try (MappedSegmentLog log = MappedSegmentLog.open(directory, SEGMENT_SIZE)) {
+			log.append(TYPE, payload(0));
+			second = log.append(TYPE, payload(1));
+			log.append(TYPE, payload(2));
+		}
+		// Flip a payload byte of the second record: its CRC no longer matches
+		try (FileChannel segment = FileChannel.open(onlySegment(), StandardOpenOption.WRITE)) {
+			segment.write(ByteBuffer.wrap(new byte[] { 'X' }), second + 9);
+		}
+
+		try (MappedSegmentLog log = MappedSegmentLog.open(directory, SEGMENT_SIZE)) {
+			assertEquals(List.of("record-0"), replay(log));
+			log.append(TYPE, payload(3));
+		}
+
+		MappedSegmentLog reopened = MappedSegmentLog.open(directory, SEGMENT_SIZE);
+		assertEquals(List.of("record-0", "record-3"), replay(reopened));
+		reopened.close();
+	}
+
+	@Test
+	void redeliversOutstandingRecordsThenDeadLettersThem() {
+		try (MappedSegmentLog log = MappedSegmentLog.open(directory, SEGMENT_SIZE)) {
+			long stuck = log.append(TYPE, payload(0));
+			log.acknowledge(log.append(TYPE, payload(1)));
+
+			List<Long> delivered = new ArrayList<>();
+			List<Long> deadLettered = new ArrayList<>();
+			for (int round = 0; round < 3; round++) {
+				log.redeliver(0, 3, (offset, type, payload) -> delivered.add(offset),
+						(offset, type, payload) -> deadLettered.add(offset));
+			}
+
+			// Appended counts as the first delivery
+			assertEquals(List.of(stuck, stuck), delivered);
+			assertEquals(List.of(stuck), deadLettered);
+			assertEquals(0, log.outstandingCount());
+		}
+	}
+
+	@Test
+	void rejectsTheReservedAckType() {
+		try (MappedSegmentLog log = MappedSegmentLog.open(directory, SEGMENT_SIZE)) {
+			assertThrows(IllegalArgumentException.class, () -> log.append((byte) 0, payload(0)));
+			assertThrows(IllegalArgumentException.class, () -> log.append(TYPE, new byte[SEGMENT_SIZE]));
+		}
+	}
+
+	private static byte[] payload(int i) {
+		return ("record-" + i).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static List<String> replay(MappedSegmentLog log) {
+		List<String> replayed = new ArrayList<>();
+		log.replay((offset, type, payload) -> replayed.add(new String(payload, StandardCharsets.UTF_8)));
+		return replayed;
+	}
+
+	private int segmentCount() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return (int) files.filter(p -> p.getFileName().toString().startsWith("segment-")).count();
+		}
+	}
+
+	private Path onlySegment() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(p -> p.getFileName().toString().startsWith("segment-")).findFirst().orElseThrow();
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.example.workflow_management_system.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedLruMapTests {
+
+	private final List<String> evicted = new ArrayList<>();
+
+	@Test
+	void evictsTheLeastRecentlyUsedEntry() {
+		StripedLruMap<String, String> map = new StripedLruMap<>(3, 1, evicted::add);
+		map.put("a", "A");
+		map.put("b", "B");
+		map.put("c", "C");
+		// Reading a makes b the eldest
+		assertEquals("A", map.get("a"));
+
+		map.put("d", "D");
+
+		assertEquals(List.of("B"), evicted);
+		assertNull(map.get("b"));
+		assertEquals("A", map.get("a"));
+		assertEquals("C", map.get("c"));
+		assertEquals("D", map.get("d"));
+	}
+
+	@Test
+	void replacingAValueDoesNotEvict() {
+		StripedLruMap<String, String> map = new StripedLruMap<>(2, 1, evicted::add);
+		map.put("a", "A");
+		map.put("b", "B");
+		map.put("a", "A2");
+
+		assertEquals(List.of(), evicted);
+		assertEquals("A2", map.get("a"));
+		assertEquals(2, map.size());
+	}
+
+	@Test
+	void boundsEveryStripe() {
+		// 3 stripes round down to 2, each holding 4 entries
+		StripedLruMap<Integer, Integer> map = new StripedLruMap<>(8, 3, value -> evicted.add(String.valueOf(value)));
+		for (int i = 0; i < 100; i++) {
+			map.put(i, i);
+		}
+
+		assertTrue(map.size() <= 8);
+		assertEquals(100 - map.size(), evicted.size());
+		// The most recent key is always kept
+		assertEquals(99, map.get(99));
+	}
+
+	@Test
+	void removeAndClearDoNotCountAsEvictions() {
+		StripedLruMap<String, String> map = new StripedLruMap<>(4, 2, evicted::add);
+		map.put("a", "A");
+		map.put("b", "B");
+		map.remove("a");
+		assertNull(map.get("a"));
+		map.clear();
+
+		assertEquals(0, map.size());
+		assertEquals(List.of(), evicted);
+	}
+
+	@Test
+	void rejectsAnEmptyMap() {
+		assertThrows(IllegalArgumentException.class, () -> new StripedLruMap<String, String>(0, 1, evicted::add));
+		assertThrows(IllegalArgumentException.class, () -> new StripedLruMap<String, String>(1, 0, evicted::add));
+	}
+}
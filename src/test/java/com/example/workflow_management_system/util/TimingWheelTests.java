@@ -0,0 +1,99 @@
+package com.example.workflow_management_system.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTests {
+
+	// 10 ms ticks, 4 slots, 3 levels: spans of 1, 4 and 16 ticks, 64 ticks in all
+	private static final long TICK = 10;
+
+	private final TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 3, 0);
+
+	@Test
+	void firesOnTheTickOfTheDeadline() {
+		wheel.schedule("a", 3 * TICK);
+		wheel.schedule("b", 3 * TICK + 1); // Rounded up, never early
+
+		Map<String, Long> fired = runUntil(10);
+
+		assertEquals(3L, fired.get("a"));
+		assertEquals(4L, fired.get("b"));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void cascadesFromHigherLevelsWithoutFiringEarly() {
+		wheel.schedule("level1", 6 * TICK);
+		wheel.schedule("level2", 37 * TICK);
+		wheel.schedule("top", 63 * TICK);
+
+		Map<String, Long> fired = runUntil(70);
+
+		assertEquals(6L, fired.get("level1"));
+		assertEquals(37L, fired.get("level2"));
+		assertEquals(63L, fired.get("top"));
+	}
+
+	@Test
+	void parksDeadlinesBeyondTheTopLevelUntilTheyComeInRange() {
+		wheel.schedule("overflow", 200 * TICK);
+		wheel.schedule("far", 1000 * TICK);
+
+		Map<String, Long> fired = runUntil(1010);
+
+		assertEquals(200L, fired.get("overflow"));
+		assertEquals(1000L, fired.get("far"));
+	}
+
+	@Test
+	void firesOverdueTimersOnTheNextAdvance() {
+		wheel.advance(50 * TICK);
+		wheel.schedule("late", 20 * TICK);
+
+		assertEquals(List.of("late"), wheel.advance(50 * TICK));
+	}
+
+	@Test
+	void cancelAndRescheduleMoveTheTimer() {
+		wheel.schedule("moved", 40 * TICK);
+		wheel.schedule("cancelled", 40 * TICK);
+		wheel.schedule("moved", 5 * TICK);
+
+		assertTrue(wheel.cancel("cancelled"));
+		assertFalse(wheel.cancel("cancelled"));
+
+		Map<String, Long> fired = runUntil(60);
+
+		assertEquals(Map.of("moved", 5L), fired);
+	}
+
+	@Test
+	void skippingManyTicksInOneAdvanceFiresEverythingInOrder() {
+		wheel.schedule("third", 150 * TICK);
+		wheel.schedule("first", 2 * TICK);
+		wheel.schedule("second", 30 * TICK);
+
+		assertEquals(List.of("first", "second", "third"), wheel.advance(500 * TICK));
+		assertEquals(0, wheel.size());
+	}
+
+	// Advances one tick at a time and records the tick each key fired on
+	private Map<String, Long> runUntil(long lastTick) {
+		Map<String, Long> fired = new HashMap<>();
+		for (long tick = 1; tick <= lastTick; tick++) {
+			for (String key : wheel.advance(tick * TICK)) {
+				assertNull(fired.put(key, tick), key + " fired twice");
+			}
+		}
+		return fired;
+	}
+}